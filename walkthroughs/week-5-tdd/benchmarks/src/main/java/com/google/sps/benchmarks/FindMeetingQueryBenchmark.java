@@ -0,0 +1,107 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FindMeetingQuery#query} over synthetic calendars with each engine. Each
+ * invocation runs the next request from a fixed pool so that the JIT can't specialise on a single
+ * request. {@link PreparedQueryBenchmark} covers the query paths that don't take an engine.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FindMeetingQueryBenchmark {
+  private static final int REQUESTS = 64;
+
+  @Param({"100", "1000", "10000"})
+  public int eventsPerDay;
+
+  @Param({"1", "5"})
+  public int attendeesPerEvent;
+
+  @Param({"3", "20"})
+  public int inviteesPerRequest;
+
+  @Param({"0", "5"})
+  public int optionalAttendees;
+
+  @Param({"1000"})
+  public int population;
+
+  @Param({"SWEEP", "BITMAP"})
+  public FindMeetingQuery.Engine engine;
+
+  private List<Event> events;
+  private EventIndex index;
+  private MeetingRequest[] requests;
+  private FindMeetingQuery query;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    SyntheticCalendar calendar = new SyntheticCalendar(42, population);
+    events = calendar.events(eventsPerDay, attendeesPerEvent);
+    index = new EventIndex(events);
+    requests = new MeetingRequest[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      requests[i] = calendar.request(inviteesPerRequest, optionalAttendees, 30);
+    }
+    query = new FindMeetingQuery(engine);
+  }
+
+  /**
+   * A one-off query straight from the collection of events, which includes indexing them.
+   */
+  @Benchmark
+  public Collection<TimeRange> queryEvents() {
+    return query.query(events, nextRequest());
+  }
+
+  /**
+   * A query against an index that was built ahead of time, like the servlets do.
+   */
+  @Benchmark
+  public Collection<TimeRange> queryIndex() {
+    return query.query(index, nextRequest());
+  }
+
+  private MeetingRequest nextRequest() {
+    next = (next + 1) % REQUESTS;
+    return requests[next];
+  }
+}
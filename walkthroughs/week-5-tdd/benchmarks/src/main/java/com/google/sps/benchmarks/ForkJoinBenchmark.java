@@ -0,0 +1,78 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@code FORK_JOIN} engine with the sequential {@code SWEEP} engine as groups grow, to
+ * find the group size where merging in parallel starts to pay off.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ForkJoinBenchmark {
+  private static final int REQUESTS = 64;
+
+  @Param({"1000", "100000"})
+  public int eventsPerDay;
+
+  @Param({"8", "64", "512"})
+  public int inviteesPerRequest;
+
+  @Param({"SWEEP", "FORK_JOIN"})
+  public FindMeetingQuery.Engine engine;
+
+  private EventIndex index;
+  private MeetingRequest[] requests;
+  private FindMeetingQuery query;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    SyntheticCalendar calendar = new SyntheticCalendar(42, 10000);
+    index = new EventIndex(calendar.events(eventsPerDay, 3));
+    requests = new MeetingRequest[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      requests[i] = calendar.request(inviteesPerRequest, 0, 30);
+    }
+    query = new FindMeetingQuery(engine);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> queryIndex() {
+    next = (next + 1) % REQUESTS;
+    return query.query(index, requests[next]);
+  }
+}
@@ -0,0 +1,128 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeDirectory;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.EventTable;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.QueryContext;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the query paths that work on data prepared ahead of time and don't take a {@link
+ * FindMeetingQuery.Engine}: a scan of an {@link EventTable}, and a {@link QueryContext} given
+ * attendee IDs. The calendars and requests are the same as in {@link FindMeetingQueryBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PreparedQueryBenchmark {
+  private static final int REQUESTS = 64;
+
+  @Param({"100", "1000", "10000"})
+  public int eventsPerDay;
+
+  @Param({"1", "5"})
+  public int attendeesPerEvent;
+
+  @Param({"3", "20"})
+  public int inviteesPerRequest;
+
+  @Param({"0", "5"})
+  public int optionalAttendees;
+
+  @Param({"1000"})
+  public int population;
+
+  private EventIndex index;
+  private EventTable table;
+  private MeetingRequest[] requests;
+  private int[][] attendeeIds;
+  private int[][] optionalIds;
+  private final QueryContext context = new QueryContext();
+  private final int[] slots = new int[2 * TimeRange.WHOLE_DAY.duration()];
+  private final FindMeetingQuery query = new FindMeetingQuery();
+  private int next;
+
+  @Setup
+  public void setUp() {
+    SyntheticCalendar calendar = new SyntheticCalendar(42, population);
+    List<Event> events = calendar.events(eventsPerDay, attendeesPerEvent);
+    index = new EventIndex(events);
+    table = new EventTable(events);
+    requests = new MeetingRequest[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      requests[i] = calendar.request(inviteesPerRequest, optionalAttendees, 30);
+    }
+    attendeeIds = new int[REQUESTS][];
+    optionalIds = new int[REQUESTS][];
+    for (int i = 0; i < REQUESTS; i++) {
+      attendeeIds[i] = ids(requests[i].getAttendees());
+      optionalIds[i] = ids(requests[i].getOptionalAttendees());
+    }
+  }
+
+  /**
+   * A query that scans a columnar table built ahead of time.
+   */
+  @Benchmark
+  public Collection<TimeRange> queryTable() {
+    return query.query(table, nextRequest());
+  }
+
+  /**
+   * A query through a reused {@link QueryContext} with the attendees looked up ahead of time. The
+   * GC profiler should report no allocation for this one.
+   */
+  @Benchmark
+  public int queryContext() {
+    nextRequest();
+    return context.query(index, attendeeIds[next], optionalIds[next], 30, slots);
+  }
+
+  private static int[] ids(Collection<String> people) {
+    int[] ids = new int[people.size()];
+    int i = 0;
+    for (String person : people) {
+      ids[i++] = AttendeeDirectory.shared().find(person);
+    }
+    return ids;
+  }
+
+  private MeetingRequest nextRequest() {
+    next = (next + 1) % REQUESTS;
+    return requests[next];
+  }
+}
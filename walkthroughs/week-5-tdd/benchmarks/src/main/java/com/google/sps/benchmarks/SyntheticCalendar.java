@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates reproducible calendars and meeting requests for the benchmarks. The same seed always
+ * produces the same events and requests, so runs can be compared with each other.
+ */
+public final class SyntheticCalendar {
+  private static final int[] DURATIONS = {15, 30, 45, 60, 90, 120};
+
+  private final Random random;
+  private final String[] people;
+
+  /**
+   * Creates a generator that draws attendees from {@code population} different people.
+   */
+  public SyntheticCalendar(long seed, int population) {
+    if (population <= 0) {
+      throw new IllegalArgumentException("population must be positive");
+    }
+
+    this.random = new Random(seed);
+    this.people = new String[population];
+    for (int i = 0; i < population; i++) {
+      people[i] = "Person " + i;
+    }
+  }
+
+  /**
+   * Returns {@code count} events spread over the day, each with {@code attendeesPerEvent} different
+   * people (or the whole population if it is smaller).
+   */
+  public List<Event> events(int count, int attendeesPerEvent) {
+    List<Event> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - duration);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          pickPeople(attendeesPerEvent)));
+    }
+    return events;
+  }
+
+  /**
+   * Returns a request for {@code duration} minutes with {@code invitees} mandatory attendees and up
+   * to {@code optionals} optional attendees.
+   */
+  public MeetingRequest request(int invitees, int optionals, long duration) {
+    MeetingRequest request = new MeetingRequest(pickPeople(invitees), duration);
+    for (String person : pickPeople(optionals)) {
+      request.addOptionalAttendee(person);
+    }
+    return request;
+  }
+
+  /**
+   * Returns a random person from the population.
+   */
+  public String person() {
+    return people[random.nextInt(people.length)];
+  }
+
+  private Set<String> pickPeople(int count) {
+    Set<String> picked = new LinkedHashSet<>();
+    count = Math.min(count, people.length);
+    while (picked.size() < count) {
+      picked.add(person());
+    }
+    return picked;
+  }
+}
@@ -0,0 +1,68 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.TimeRange;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the pairwise {@link TimeRange} checks that the scheduler used to lean on.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeRangeBenchmark {
+  private static final int RANGES = 1024;
+
+  private TimeRange[] ranges;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    ranges = new TimeRange[RANGES];
+    for (int i = 0; i < RANGES; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+      int duration = random.nextInt(TimeRange.WHOLE_DAY.duration() - start) + 1;
+      ranges[i] = TimeRange.fromStartDuration(start, duration);
+    }
+  }
+
+  @Benchmark
+  public boolean overlaps() {
+    next = (next + 1) & (RANGES - 1);
+    return ranges[next].overlaps(ranges[(next + 1) & (RANGES - 1)]);
+  }
+
+  @Benchmark
+  public boolean contains() {
+    next = (next + 1) & (RANGES - 1);
+    return ranges[next].contains(ranges[(next + 1) & (RANGES - 1)]);
+  }
+}
@@ -0,0 +1,249 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every attendee name a small, dense {@code int} ID so that events can store their attendees
+ * as a sorted {@code int[]} instead of a set of strings. Checking whether two groups share someone
+ * is then a merge of two sorted arrays rather than a round of string hashing.
+ *
+ * <p>IDs are handed out in the order names are first seen and are never taken back, so the
+ * directory grows with the number of distinct people that have ever had an event. Meeting requests
+ * only look names up, so queries about anyone else never grow it. Lookups are lock-free; only
+ * handing out a new ID takes a lock.
+ */
+public final class AttendeeDirectory {
+  private static final AttendeeDirectory SHARED = new AttendeeDirectory();
+  private static final int[] NO_IDS = new int[0];
+
+  private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+  // Only ever replaced by a longer copy, and every ID is written before it is published.
+  private volatile String[] names = new String[16];
+  private volatile int size;
+
+  /**
+   * Creates an empty directory.
+   */
+  public AttendeeDirectory() {}
+
+  /**
+   * Returns the directory that events and meeting requests use.
+   */
+  public static AttendeeDirectory shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the ID of {@code name}, giving it the next free ID if it doesn't have one yet.
+   */
+  public int intern(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(name);
+      if (id != null) {
+        return id;
+      }
+      String[] current = names;
+      if (size == current.length) {
+        current = Arrays.copyOf(current, 2 * current.length);
+      }
+      current[size] = name;
+      names = current;
+      size++;
+      ids.put(name, size - 1);
+      return size - 1;
+    }
+  }
+
+  /**
+   * Returns the sorted IDs of {@code names}, without duplicates, interning any name that doesn't
+   * have an ID yet. The result may be shared with {@code names} and must not be changed.
+   */
+  public int[] intern(Collection<String> names) {
+    int[] known = idsOf(names);
+    if (known != null) {
+      return known;
+    }
+
+    int[] interned = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      interned[count++] = intern(name);
+    }
+    return sortedUnique(interned, count);
+  }
+
+  /**
+   * Returns the ID of {@code name}, or -1 if it hasn't been interned.
+   */
+  public int find(String name) {
+    Integer id = ids.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the sorted IDs of the names in {@code names} that have been interned, without
+   * duplicates. Unknown names are skipped rather than interned, so asking about people who have no
+   * events doesn't grow the directory. The result may be shared with {@code names} and must not be
+   * changed.
+   */
+  public int[] find(Collection<String> names) {
+    int[] known = idsOf(names);
+    if (known != null) {
+      return known;
+    }
+
+    int[] found = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      int id = find(name);
+      if (id >= 0) {
+        found[count++] = id;
+      }
+    }
+    return sortedUnique(found, count);
+  }
+
+  /**
+   * Returns the name with ID {@code id}.
+   */
+  public String name(int id) {
+    if (id < 0 || id >= size) {
+      throw new IllegalArgumentException("unknown id: " + id);
+    }
+    return names[id];
+  }
+
+  /**
+   * Returns the number of names that have been interned.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a read-only set of the names with the given IDs, which must be sorted and unique.
+   * Nothing is copied, so the caller must not change {@code ids} afterwards.
+   */
+  public Set<String> asNames(int[] ids) {
+    return new NameSet(this, ids);
+  }
+
+  /**
+   * Returns whether the sorted arrays {@code a} and {@code b} have an ID in common.
+   */
+  public static boolean intersects(int[] a, int[] b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        return true;
+      }
+      if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the IDs behind {@code names} if it is a view from {@link #asNames}, which are already
+   * sorted and unique, or null otherwise.
+   */
+  private int[] idsOf(Collection<String> names) {
+    if (names instanceof NameSet && ((NameSet) names).directory == this) {
+      return ((NameSet) names).ids;
+    }
+    return null;
+  }
+
+  private static int[] sortedUnique(int[] values, int count) {
+    if (count == 0) {
+      return NO_IDS;
+    }
+    Arrays.sort(values, 0, count);
+    int unique = 1;
+    for (int i = 1; i < count; i++) {
+      if (values[i] != values[unique - 1]) {
+        values[unique++] = values[i];
+      }
+    }
+    return unique == values.length ? values : Arrays.copyOf(values, unique);
+  }
+
+  /**
+   * A set of names backed by their sorted IDs.
+   */
+  private static final class NameSet extends AbstractSet<String> {
+    private final AttendeeDirectory directory;
+    private final int[] ids;
+
+    NameSet(AttendeeDirectory directory, int[] ids) {
+      this.directory = directory;
+      this.ids = ids;
+    }
+
+    @Override
+    public boolean contains(Object other) {
+      if (!(other instanceof String)) {
+        return false;
+      }
+      int id = directory.find((String) other);
+      return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<String>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < ids.length;
+        }
+
+        @Override
+        public String next() {
+          if (next == ids.length) {
+            throw new NoSuchElementException();
+          }
+          return directory.name(ids[next++]);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return ids.length;
+    }
+  }
+}
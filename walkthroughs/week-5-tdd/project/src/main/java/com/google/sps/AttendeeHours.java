@@ -0,0 +1,135 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each attendee's working hours, in their own time zone. The time outside of someone's working
+ * hours is busy for them, and it is worked out once per attendee per day and remembered, so that a
+ * sweep can take it in alongside their events. Days are counted in UTC.
+ *
+ * <p>People without hours of their own use the default hours, which may be {@code null} for people
+ * who can meet at any time.
+ */
+public final class AttendeeHours {
+  private static final long[] NEVER = new long[0];
+  private static final long MINUTES_PER_DAY = TimeRange.WHOLE_DAY.duration();
+  // Each attendee remembers at most this many days, which is plenty for a few months of queries.
+  private static final int MAX_DAYS = 366;
+
+  // Shared by everyone without hours of their own, so their days are only worked out once.
+  private final Attendee everyoneElse;
+  private final Map<String, Attendee> attendees = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new set of working hours.
+   *
+   * @param defaultHours The hours of people without hours of their own, or {@code null} if they
+   *     can meet at any time.
+   */
+  public AttendeeHours(WorkingHours defaultHours) {
+    this.everyoneElse = new Attendee(defaultHours);
+  }
+
+  /**
+   * Sets the working hours of {@code attendee}, or with {@code null} lets them meet at any time.
+   * The off hours remembered for them are forgotten.
+   */
+  public void set(String attendee, WorkingHours hours) {
+    if (attendee == null) {
+      throw new IllegalArgumentException("attendee cannot be null");
+    }
+    attendees.put(attendee, new Attendee(hours));
+  }
+
+  /**
+   * Returns the working hours of {@code attendee}, or {@code null} if they can meet at any time.
+   */
+  public WorkingHours get(String attendee) {
+    return attendees.getOrDefault(attendee, everyoneElse).hours;
+  }
+
+  /**
+   * Returns the time outside of the working hours of {@code attendee} on the UTC day {@code
+   * epochDay}, as sorted and disjoint {@code [start, end)} pairs of epoch minutes. The array is
+   * shared and must not be changed.
+   */
+  long[] offHours(String attendee, long epochDay) {
+    // Only people given hours of their own get an entry, so names that were never set up can't make
+    // the map grow.
+    return attendees.getOrDefault(attendee, everyoneElse).offHours(epochDay);
+  }
+
+  /**
+   * Returns the number of people with hours of their own.
+   */
+  int size() {
+    return attendees.size();
+  }
+
+  /**
+   * One attendee's hours and the off hours worked out from them so far, which are thrown away
+   * together when the hours change.
+   */
+  private static final class Attendee {
+    final WorkingHours hours;
+    final Map<Long, long[]> days = new ConcurrentHashMap<>();
+
+    Attendee(WorkingHours hours) {
+      this.hours = hours;
+    }
+
+    long[] offHours(long epochDay) {
+      if (hours == null) {
+        return NEVER;
+      }
+      long[] cached = days.get(epochDay);
+      if (cached != null) {
+        return cached;
+      }
+      if (days.size() >= MAX_DAYS) {
+        days.clear();
+      }
+      long[] offHours = compute(epochDay);
+      days.put(epochDay, offHours);
+      return offHours;
+    }
+
+    private long[] compute(long epochDay) {
+      EpochRange day = EpochRange.fromStartEnd(
+          epochDay * MINUTES_PER_DAY, (epochDay + 1) * MINUTES_PER_DAY);
+      List<EpochRange> windows = hours.windows(day);
+      long[] offHours = new long[2 * (windows.size() + 1)];
+      int count = 0;
+      long freeFrom = day.start();
+      for (EpochRange window : windows) {
+        if (window.start() > freeFrom) {
+          offHours[count++] = freeFrom;
+          offHours[count++] = window.start();
+        }
+        freeFrom = Math.max(freeFrom, window.end());
+      }
+      if (freeFrom < day.end()) {
+        offHours[count++] = freeFrom;
+        offHours[count++] = day.end();
+      }
+      return Arrays.copyOf(offHours, count);
+    }
+  }
+}
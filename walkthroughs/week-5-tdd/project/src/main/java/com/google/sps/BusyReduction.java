@@ -0,0 +1,119 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Merges the busy time of many attendees with fork-join. Each attendee's busy time is merged on
+ * its own, then the results are unioned pairwise up a reduction tree, with the two halves of every
+ * level running in parallel. Groups of at most {@code threshold} attendees are merged on the
+ * calling thread, since forking costs more than it saves for them.
+ *
+ * <p>Busy time is passed around as {@code [start, end)} pairs packed into one {@code int[]}, sorted
+ * and disjoint.
+ */
+final class BusyReduction extends RecursiveTask<int[]> {
+  private static final int[] NOTHING = new int[0];
+
+  private final List<EventIndex.Bounds> attendees;
+  private final int from;
+  private final int to;
+  private final int threshold;
+
+  private BusyReduction(List<EventIndex.Bounds> attendees, int from, int to, int threshold) {
+    this.attendees = attendees;
+    this.from = from;
+    this.to = to;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns the merged busy time of {@code attendees}, each given as its own sorted bounds.
+   */
+  static int[] merge(List<EventIndex.Bounds> attendees, int threshold) {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("threshold must be positive");
+    }
+
+    BusyReduction task = new BusyReduction(attendees, 0, attendees.size(), threshold);
+    return attendees.size() <= threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+  }
+
+  @Override
+  protected int[] compute() {
+    if (to - from <= threshold) {
+      int[] busy = NOTHING;
+      for (int i = from; i < to; i++) {
+        busy = union(busy, mergeOne(attendees.get(i)));
+      }
+      return busy;
+    }
+
+    int middle = (from + to) >>> 1;
+    BusyReduction left = new BusyReduction(attendees, from, middle, threshold);
+    left.fork();
+    int[] right = new BusyReduction(attendees, middle, to, threshold).compute();
+    return union(left.join(), right);
+  }
+
+  private static int[] mergeOne(EventIndex.Bounds bounds) {
+    int[] merged = new int[2 * bounds.count];
+    int count = TimeSweep.mergeBusy(bounds.starts, bounds.ends, bounds.count, merged);
+    return count == bounds.count ? merged : Arrays.copyOf(merged, 2 * count);
+  }
+
+  /**
+   * Returns the union of two sorted lists of disjoint busy ranges. Ranges that touch are joined.
+   */
+  static int[] union(int[] a, int[] b) {
+    if (a.length == 0) {
+      return b;
+    }
+    if (b.length == 0) {
+      return a;
+    }
+
+    int[] out = new int[a.length + b.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length || j < b.length) {
+      // Take whichever range starts first.
+      int start;
+      int end;
+      if (j == b.length || (i < a.length && a[i] <= b[j])) {
+        start = a[i];
+        end = a[i + 1];
+        i += 2;
+      } else {
+        start = b[j];
+        end = b[j + 1];
+        j += 2;
+      }
+
+      if (count > 0 && start <= out[count - 1]) {
+        out[count - 1] = Math.max(out[count - 1], end);
+      } else {
+        out[count++] = start;
+        out[count++] = end;
+      }
+    }
+    return count == out.length ? out : Arrays.copyOf(out, count);
+  }
+}
@@ -0,0 +1,190 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The busy minutes of a single day, one bit per minute. A day is 1440 minutes, so the whole day
+ * fits in 23 longs. Combining people is a bitwise OR and free windows are found by scanning for
+ * runs of clear bits a word at a time.
+ */
+public final class DayBitmap {
+  private static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+  private static final int WORDS = (MINUTES + Long.SIZE - 1) / Long.SIZE;
+
+  private final long[] words = new long[WORDS];
+
+  /**
+   * Creates a bitmap where every minute of the day is free.
+   */
+  public DayBitmap() {}
+
+  /**
+   * Creates a copy of {@code other}.
+   */
+  public DayBitmap(DayBitmap other) {
+    System.arraycopy(other.words, 0, words, 0, WORDS);
+  }
+
+  /**
+   * Marks every minute of {@code range} that falls within the day as busy.
+   */
+  public void setBusy(TimeRange range) {
+    setBusy(range.start(), range.end());
+  }
+
+  /**
+   * Marks the minutes from {@code start} (inclusive) to {@code end} (exclusive) as busy. Minutes
+   * outside of the day are ignored.
+   */
+  public void setBusy(int start, int end) {
+    start = Math.max(start, 0);
+    end = Math.min(end, MINUTES);
+    if (start >= end) {
+      return;
+    }
+
+    int first = start / Long.SIZE;
+    int last = (end - 1) / Long.SIZE;
+    // Shifts only use the low six bits, so these masks cover [start % 64, 64) and [0, end % 64).
+    long firstMask = -1L << start;
+    long lastMask = -1L >>> -end;
+    if (first == last) {
+      words[first] |= firstMask & lastMask;
+      return;
+    }
+
+    words[first] |= firstMask;
+    for (int i = first + 1; i < last; i++) {
+      words[i] = -1L;
+    }
+    words[last] |= lastMask;
+  }
+
+  /**
+   * Marks every minute as free again.
+   */
+  public void clear() {
+    Arrays.fill(words, 0);
+  }
+
+  /**
+   * Marks every minute that is busy in {@code other} as busy in this bitmap too.
+   */
+  public void or(DayBitmap other) {
+    for (int i = 0; i < WORDS; i++) {
+      words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * Returns whether {@code minute} is busy.
+   */
+  public boolean isBusy(int minute) {
+    if (minute < 0 || minute >= MINUTES) {
+      throw new IllegalArgumentException("minute must be within the day");
+    }
+    return (words[minute / Long.SIZE] & (1L << minute)) != 0;
+  }
+
+  /**
+   * Returns how many of the minutes from {@code start} (inclusive) to {@code end} (exclusive) are
+   * busy. Both must be within the day.
+   */
+  int countBusy(int start, int end) {
+    int busy = 0;
+    for (int i = start / Long.SIZE; start < end; i++) {
+      int wordEnd = Math.min((i + 1) * Long.SIZE, end);
+      // Shifts only use the low six bits, as in setBusy.
+      long mask = (-1L << start) & (wordEnd % Long.SIZE == 0 ? -1L : -1L >>> -wordEnd);
+      busy += Long.bitCount(words[i] & mask);
+      start = wordEnd;
+    }
+    return busy;
+  }
+
+  /**
+   * Returns every run of free minutes that lasts at least {@code duration} minutes, in ascending
+   * order.
+   */
+  public List<TimeRange> freeRanges(long duration) {
+    List<TimeRange> free = new ArrayList<>();
+    // A gap has to be at least a minute long to be worth reporting, even for a zero-length meeting.
+    long minimum = Math.max(duration, 1);
+
+    int start = nextFree(0);
+    while (start < MINUTES) {
+      int end = nextBusy(start);
+      if (end - start >= minimum) {
+        free.add(TimeRange.fromStartEnd(start, end, false));
+      }
+      start = nextFree(end);
+    }
+    return free;
+  }
+
+  /**
+   * Returns the length of the longest run of free minutes, or 0 if the whole day is busy.
+   */
+  int longestFree() {
+    int longest = 0;
+    int start = nextFree(0);
+    while (start < MINUTES) {
+      int end = nextBusy(start);
+      longest = Math.max(longest, end - start);
+      start = nextFree(end);
+    }
+    return longest;
+  }
+
+  /**
+   * Returns the first free minute at or after {@code from}, or the end of the day if there is none.
+   */
+  int nextFree(int from) {
+    if (from >= MINUTES) {
+      return MINUTES;
+    }
+    int i = from / Long.SIZE;
+    long word = ~words[i] & (-1L << from);
+    while (word == 0) {
+      if (++i == WORDS) {
+        return MINUTES;
+      }
+      word = ~words[i];
+    }
+    return Math.min(i * Long.SIZE + Long.numberOfTrailingZeros(word), MINUTES);
+  }
+
+  /**
+   * Returns the first busy minute at or after {@code from}, or the end of the day if there is none.
+   */
+  int nextBusy(int from) {
+    if (from >= MINUTES) {
+      return MINUTES;
+    }
+    int i = from / Long.SIZE;
+    long word = words[i] & (-1L << from);
+    while (word == 0) {
+      if (++i == WORDS) {
+        return MINUTES;
+      }
+      word = words[i];
+    }
+    return Math.min(i * Long.SIZE + Long.numberOfTrailingZeros(word), MINUTES);
+  }
+}
@@ -0,0 +1,114 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An event pinned to an absolute span of time rather than to minutes within a single day. Events
+ * are considered read-only.
+ */
+public final class EpochEvent {
+  private final String title;
+  private final EpochRange when;
+  // Sorted IDs from the shared AttendeeDirectory, the same as in Event.
+  private final int[] attendees;
+
+  /**
+   * Creates a new event.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time when the event takes place. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   */
+  public EpochEvent(String title, EpochRange when, Collection<String> attendees) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null. Use empty array instead.");
+    }
+
+    this.title = title;
+    this.when = when;
+    this.attendees = AttendeeDirectory.shared().intern(attendees);
+  }
+
+  private EpochEvent(String title, EpochRange when, int[] attendees) {
+    this.title = title;
+    this.when = when;
+    this.attendees = attendees;
+  }
+
+  /**
+   * Creates the {@code EpochEvent} for {@code event} taking place on {@code day} in {@code zone}.
+   */
+  public static EpochEvent onDay(Event event, LocalDate day, ZoneId zone) {
+    return new EpochEvent(
+        event.getTitle(), EpochRange.onDay(event.getWhen(), day, zone), event.getAttendeeIds());
+  }
+
+  /**
+   * Returns the human-readable name for this event.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the {@code EpochRange} for when this event occurs.
+   */
+  public EpochRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns a read-only set of required attendees for this event.
+   */
+  public Set<String> getAttendees() {
+    return AttendeeDirectory.shared().asNames(attendees);
+  }
+
+  /**
+   * Returns the sorted IDs of this event's attendees. The array is shared and must not be changed.
+   */
+  int[] getAttendeeIds() {
+    return attendees;
+  }
+
+  @Override
+  public int hashCode() {
+    return title.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof EpochEvent && equals(this, (EpochEvent) other);
+  }
+
+  private static boolean equals(EpochEvent a, EpochEvent b) {
+    return a.title.equals(b.title) && a.when.equals(b.when)
+        && Arrays.equals(a.attendees, b.attendees);
+  }
+}
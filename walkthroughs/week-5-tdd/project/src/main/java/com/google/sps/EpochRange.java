@@ -0,0 +1,175 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing a span of absolute time, counted in minutes since the Unix epoch. Unlike
+ * {@link TimeRange}, an {@code EpochRange} is not tied to a single day, so it can describe events
+ * and free slots anywhere in a week, a month or longer.
+ */
+public final class EpochRange {
+  /**
+   * A comparator for sorting ranges by their start time in ascending order.
+   */
+  public static final Comparator<EpochRange> ORDER_BY_START = new Comparator<EpochRange>() {
+    @Override
+    public int compare(EpochRange a, EpochRange b) {
+      return Long.compare(a.start, b.start);
+    }
+  };
+
+  private final long start;
+  private final long end;
+
+  private EpochRange(long start, long end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end cannot come before start");
+    }
+
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns the start of the range in minutes since the epoch.
+   */
+  public long start() {
+    return start;
+  }
+
+  /**
+   * Returns the end of the range in minutes since the epoch. This ending value is the closing
+   * exclusive bound.
+   */
+  public long end() {
+    return end;
+  }
+
+  /**
+   * Returns the number of minutes between the start and end.
+   */
+  public long duration() {
+    return end - start;
+  }
+
+  /**
+   * Returns the start of the range as an {@code Instant}.
+   */
+  public Instant startInstant() {
+    return Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(start));
+  }
+
+  /**
+   * Returns the end of the range as an {@code Instant}.
+   */
+  public Instant endInstant() {
+    return Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(end));
+  }
+
+  /**
+   * Checks if two ranges overlap. This means that at least some part of one range falls within the
+   * bounds of another range. Ranges without a duration don't overlap anything.
+   */
+  public boolean overlaps(EpochRange other) {
+    return start < other.end && other.start < end && duration() > 0 && other.duration() > 0;
+  }
+
+  /**
+   * Checks if this range completely contains another range. If two ranges are the same, they
+   * contain each other.
+   */
+  public boolean contains(EpochRange other) {
+    return duration() > 0 && start <= other.start && other.end <= end;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof EpochRange && equals(this, (EpochRange) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(start) ^ Long.hashCode(end);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Range: [%s, %s)", startInstant(), endInstant());
+  }
+
+  private static boolean equals(EpochRange a, EpochRange b) {
+    return a.start == b.start && a.end == b.end;
+  }
+
+  /**
+   * Creates an {@code EpochRange} from {@code start} to {@code end}, both in minutes since the
+   * epoch. {@code end} is not included in the range.
+   */
+  public static EpochRange fromStartEnd(long start, long end) {
+    return new EpochRange(start, end);
+  }
+
+  /**
+   * Creates an {@code EpochRange} between two instants. Seconds are truncated to whole minutes.
+   */
+  public static EpochRange fromInstants(Instant start, Instant end) {
+    return new EpochRange(toEpochMinutes(start), toEpochMinutes(end));
+  }
+
+  /**
+   * Creates an {@code EpochRange} between two zoned date-times, which may be in different zones.
+   */
+  public static EpochRange fromZoned(ZonedDateTime start, ZonedDateTime end) {
+    return fromInstants(start.toInstant(), end.toInstant());
+  }
+
+  /**
+   * Creates an {@code EpochRange} for the minutes of {@code range} on {@code day} in {@code zone}.
+   * The start and end are wall-clock times, so on days where the clocks change the range keeps its
+   * times rather than its length.
+   */
+  public static EpochRange onDay(TimeRange range, LocalDate day, ZoneId zone) {
+    return new EpochRange(
+        toEpochMinutes(day, range.start(), zone), toEpochMinutes(day, range.end(), zone));
+  }
+
+  /**
+   * Returns the minute since the epoch at which the clocks in {@code zone} show {@code minute}
+   * minutes past midnight on {@code day}. Minute 1440 is the start of the next day. A time the
+   * clocks skip is moved later by the length of the gap, and a time they show twice is the first
+   * of the two, as with {@link java.time.LocalDateTime#atZone}.
+   */
+  static long toEpochMinutes(LocalDate day, int minute, ZoneId zone) {
+    ZonedDateTime time = minute == TimeRange.WHOLE_DAY.duration()
+        ? day.plusDays(1).atStartOfDay(zone)
+        : day.atTime(LocalTime.ofSecondOfDay(minute * 60L)).atZone(zone);
+    return toEpochMinutes(time.toInstant());
+  }
+
+  /**
+   * Returns {@code instant} in whole minutes since the epoch.
+   */
+  public static long toEpochMinutes(Instant instant) {
+    return Math.floorDiv(instant.getEpochSecond(), 60);
+  }
+}
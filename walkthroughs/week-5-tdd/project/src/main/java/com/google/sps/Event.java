@@ -14,9 +14,8 @@
 
 package com.google.sps;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -26,7 +25,8 @@ import java.util.Set;
 public final class Event {
   private final String title;
   private final TimeRange when;
-  private final Set<String> attendees = new HashSet<>();
+  // Sorted IDs from the shared AttendeeDirectory, which take far less room than a set of names.
+  private final int[] attendees;
 
   /**
    * Creates a new event.
@@ -50,7 +50,7 @@ public final class Event {
 
     this.title = title;
     this.when = when;
-    this.attendees.addAll(attendees);
+    this.attendees = AttendeeDirectory.shared().intern(attendees);
   }
 
   /**
@@ -71,9 +71,15 @@ public final class Event {
    * Returns a read-only set of required attendees for this event.
    */
   public Set<String> getAttendees() {
-    // Return the attendees as an unmodifiable set so that the caller can't change our
-    // internal data.
-    return Collections.unmodifiableSet(attendees);
+    // Return the attendees as a read-only view so that the caller can't change our internal data.
+    return AttendeeDirectory.shared().asNames(attendees);
+  }
+
+  /**
+   * Returns the sorted IDs of this event's attendees. The array is shared and must not be changed.
+   */
+  int[] getAttendeeIds() {
+    return attendees;
   }
 
   @Override
@@ -89,8 +95,9 @@ public final class Event {
   }
 
   private static boolean equals(Event a, Event b) {
-    // {@code attendees} must be a set for equals to work as expected. According to the {@code Set}
-    // interface documentation, equals will check for set-equality across all set implementations.
-    return a.title.equals(b.title) && a.when.equals(b.when) && a.attendees.equals(b.attendees);
+    // {@code attendees} are sorted and unique IDs from the same directory, so two events have the
+    // same attendees exactly when their arrays are equal.
+    return a.title.equals(b.title) && a.when.equals(b.when)
+        && Arrays.equals(a.attendees, b.attendees);
   }
 }
@@ -0,0 +1,570 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from each attendee to the events they are attending, sorted by start time. An index is
+ * read-only once built, so it can be shared between queries and threads. Changes produce a new
+ * index that shares everything the change doesn't touch with the old one.
+ *
+ * <p>Every event is held under a key, which the {@link EventStore} uses for its event ids. Both the
+ * events by key and the entries by attendee ID are {@link PersistentArray}s, so adding or removing
+ * an event copies only a few small nodes besides the entries of its own attendees, however many
+ * events and people the index holds.
+ */
+public final class EventIndex {
+  private static final int[] NO_TIMES = new int[0];
+
+  private final PersistentArray<Event> events;
+  // Keyed by attendee ID. People without an entry have no events.
+  private final PersistentArray<Entry> entries;
+  // Built the first time someone asks for events by time, since most indexes are never asked.
+  private volatile IntervalTree<Event> tree;
+
+  /**
+   * Creates a new index.
+   *
+   * @param events The events to index. Must be non-null.
+   */
+  public EventIndex(Collection<Event> events) {
+    this(0, events);
+  }
+
+  /**
+   * Creates an index holding {@code events} under the keys from {@code firstKey} on, in order.
+   */
+  EventIndex(long firstKey, Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    PersistentArray.Builder<Event> byKey = PersistentArray.<Event>empty().toBuilder();
+    long key = firstKey;
+    for (Event event : events) {
+      byKey.set(key++, event);
+    }
+    this.events = byKey.build();
+    this.entries = withEntries(PersistentArray.<Entry>empty(), events);
+  }
+
+  private EventIndex(PersistentArray<Event> events, PersistentArray<Entry> entries) {
+    this.events = events;
+    this.entries = entries;
+  }
+
+  /**
+   * Returns a new index with {@code event} added under {@code key}, replacing any event already
+   * there. Only the entries of the event's attendees are rebuilt, each with a binary search and an
+   * array copy rather than a sort.
+   */
+  EventIndex withEvent(long key, Event event) {
+    EventIndex base = withoutEvent(key);
+    PersistentArray<Entry> changedEntries = base.entries;
+    if (event.getWhen().duration() > 0) {
+      PersistentArray.Builder<Entry> builder = changedEntries.toBuilder();
+      for (int attendee : event.getAttendeeIds()) {
+        Entry entry = changedEntries.get(attendee);
+        builder.set(attendee, entry == null ? Entry.EMPTY.with(event) : entry.with(event));
+      }
+      changedEntries = builder.build();
+    }
+    return new EventIndex(base.events.with(key, event), changedEntries);
+  }
+
+  /**
+   * Returns a new index with every event in {@code added} added under the keys from {@code
+   * firstKey} on, in order. Each touched attendee's entry is rebuilt once, however many of the new
+   * events they attend, so this is much cheaper than adding a large batch one event at a time.
+   */
+  EventIndex withEvents(long firstKey, Collection<Event> added) {
+    PersistentArray.Builder<Event> byKey = events.toBuilder();
+    long key = firstKey;
+    for (Event event : added) {
+      if (events.get(key) != null) {
+        throw new IllegalArgumentException("key already in use: " + key);
+      }
+      byKey.set(key++, event);
+    }
+    return new EventIndex(byKey.build(), withEntries(entries, added));
+  }
+
+  /**
+   * Returns a new index with the event under {@code key} removed, or this index if there is none.
+   * Only the entries of the event's attendees are rebuilt.
+   */
+  EventIndex withoutEvent(long key) {
+    Event event = events.get(key);
+    if (event == null) {
+      return this;
+    }
+
+    PersistentArray<Entry> changedEntries = entries;
+    if (event.getWhen().duration() > 0) {
+      PersistentArray.Builder<Entry> builder = entries.toBuilder();
+      for (int attendee : event.getAttendeeIds()) {
+        Entry entry = entries.get(attendee).without(event);
+        builder.set(attendee, entry.events.isEmpty() ? null : entry);
+      }
+      changedEntries = builder.build();
+    }
+    return new EventIndex(events.without(key), changedEntries);
+  }
+
+  /**
+   * Returns {@code entries} with the events in {@code added} added, rebuilding each touched
+   * attendee's entry once.
+   */
+  private static PersistentArray<Entry> withEntries(
+      PersistentArray<Entry> entries, Collection<Event> added) {
+    Map<Integer, List<Event>> byAttendee = new HashMap<>();
+    for (Event event : added) {
+      // Ranges without a duration don't block anyone, so there is no need to index them.
+      if (event.getWhen().duration() <= 0) {
+        continue;
+      }
+      for (int attendee : event.getAttendeeIds()) {
+        byAttendee.computeIfAbsent(attendee, key -> new ArrayList<>()).add(event);
+      }
+    }
+
+    PersistentArray.Builder<Entry> builder = entries.toBuilder();
+    for (Map.Entry<Integer, List<Event>> attendee : byAttendee.entrySet()) {
+      Entry entry = entries.get(attendee.getKey());
+      List<Event> attending = new ArrayList<>();
+      if (entry != null) {
+        attending.addAll(entry.events);
+      }
+      // The sort is stable, so events that were already there stay ahead of new ones.
+      attending.addAll(attendee.getValue());
+      builder.set(attendee.getKey(), new Entry(attending));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns every indexed event, in the order of their keys. For an index built from a collection
+   * that is the order they were given in.
+   */
+  public List<Event> getEvents() {
+    return events.values();
+  }
+
+  /**
+   * Returns the event under {@code key}, or null if there is none.
+   */
+  Event getEvent(long key) {
+    return events.get(key);
+  }
+
+  /**
+   * Returns a read-only view of every indexed event by its key.
+   */
+  Map<Long, Event> getEventsByKey() {
+    return events.asMap();
+  }
+
+  /**
+   * Returns the events {@code attendee} is attending, sorted by start time. People without any
+   * events get an empty list.
+   */
+  public List<Event> getEvents(String attendee) {
+    Entry entry = entry(AttendeeDirectory.shared().find(attendee));
+    return entry == null ? Collections.emptyList() : entry.events;
+  }
+
+  /**
+   * Returns every event that overlaps {@code range}, sorted by start time.
+   */
+  public List<Event> getEvents(TimeRange range) {
+    IntervalTree<Event> tree = this.tree;
+    if (tree == null) {
+      // Two threads may both build the tree, but they build the same one.
+      tree = IntervalTree.of(events.values(), Event::getWhen);
+      this.tree = tree;
+    }
+    return tree.overlapping(range);
+  }
+
+  /**
+   * Returns whether anyone in {@code attendees} has an event that overlaps {@code range}. This
+   * takes O(log n) for each attendee.
+   */
+  public boolean isBusy(Collection<String> attendees, TimeRange range) {
+    for (int attendee : AttendeeDirectory.shared().find(attendees)) {
+      Entry entry = entry(attendee);
+      if (entry != null && entry.tree().anyOverlapping(range)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the events of anyone in {@code attendees} that overlap {@code range}, sorted by start
+   * time.
+   */
+  public List<Event> getConflicts(Collection<String> attendees, TimeRange range) {
+    Set<Event> conflicts = new LinkedHashSet<>();
+    for (int attendee : AttendeeDirectory.shared().find(attendees)) {
+      Entry entry = entry(attendee);
+      if (entry != null) {
+        conflicts.addAll(entry.tree().overlapping(range));
+      }
+    }
+    List<Event> sorted = new ArrayList<>(conflicts);
+    Collections.sort(sorted, FindMeetingQuery.SORT_BY_START);
+    return sorted;
+  }
+
+  /**
+   * Returns the number of events in the index.
+   */
+  public int size() {
+    return events.size();
+  }
+
+  /**
+   * Returns the sorted starts and sorted ends of every event attended by someone in {@code
+   * attendees}. Each attendee's times are already sorted, so they are merged rather than
+   * re-sorted. An event shared by several attendees shows up once per attendee, which the sweep
+   * tolerates since every copy opens and closes the same range.
+   */
+  Bounds bounds(Collection<String> attendees) {
+    return bounds(AttendeeDirectory.shared().find(attendees));
+  }
+
+  /**
+   * Returns the sorted starts and sorted ends of every event attended by someone in {@code
+   * attendees}, given as attendee IDs.
+   */
+  Bounds bounds(int[] attendees) {
+    List<Entry> relevant = new ArrayList<>();
+    for (int attendee : attendees) {
+      Entry entry = entry(attendee);
+      if (entry != null) {
+        relevant.add(entry);
+      }
+    }
+
+    if (relevant.isEmpty()) {
+      return new Bounds(NO_TIMES, NO_TIMES, 0);
+    }
+    if (relevant.size() == 1) {
+      // A single attendee's arrays can be handed out as-is because the sweep never writes to them.
+      Entry entry = relevant.get(0);
+      return new Bounds(entry.starts, entry.ends, entry.starts.length);
+    }
+
+    int[][] starts = new int[relevant.size()][];
+    int[][] ends = new int[relevant.size()][];
+    for (int i = 0; i < relevant.size(); i++) {
+      starts[i] = relevant.get(i).starts;
+      ends[i] = relevant.get(i).ends;
+    }
+    int[] mergedStarts = mergeSorted(starts);
+    return new Bounds(mergedStarts, mergeSorted(ends), mergedStarts.length);
+  }
+
+  /**
+   * Returns the sorted starts and sorted ends of each attendee in {@code attendees} on their own,
+   * leaving out people without any events.
+   */
+  List<Bounds> boundsByAttendee(Collection<String> attendees) {
+    List<Bounds> bounds = new ArrayList<>();
+    for (int attendee : AttendeeDirectory.shared().find(attendees)) {
+      Entry entry = entry(attendee);
+      if (entry != null) {
+        bounds.add(new Bounds(entry.starts, entry.ends, entry.starts.length));
+      }
+    }
+    return bounds;
+  }
+
+  /**
+   * Returns the minutes of the day during which someone in {@code attendees} is busy, as the OR of
+   * each attendee's bitmap.
+   */
+  DayBitmap bitmap(Collection<String> attendees) {
+    DayBitmap busy = new DayBitmap();
+    for (int attendee : AttendeeDirectory.shared().find(attendees)) {
+      Entry entry = entry(attendee);
+      if (entry != null) {
+        busy.or(entry.bitmap());
+      }
+    }
+    return busy;
+  }
+
+  /**
+   * Returns a token that is the same object, in this index and any index derived from it, for as
+   * long as the events of the attendee with ID {@code attendee} stay the same. Tokens are compared
+   * by identity, and null stands for no events.
+   */
+  Object stamp(int attendee) {
+    return entry(attendee);
+  }
+
+  /**
+   * Returns the entry of the attendee with ID {@code attendee}, or null if they have no events.
+   */
+  private Entry entry(int attendee) {
+    return entries.get(attendee);
+  }
+
+  /**
+   * Returns the combined summary of {@code attendees} in blocks of {@code resolution} minutes,
+   * which must be one of {@link FreeBusySummary#RESOLUTIONS}. This only touches one small summary
+   * per attendee, never their events.
+   */
+  FreeBusySummary summary(Collection<String> attendees, int resolution) {
+    int which = Arrays.binarySearch(FreeBusySummary.RESOLUTIONS, resolution);
+    if (which < 0) {
+      throw new IllegalArgumentException("no summaries are kept at " + resolution + " minutes");
+    }
+
+    FreeBusySummary busy = FreeBusySummary.free(resolution);
+    for (int attendee : AttendeeDirectory.shared().find(attendees)) {
+      Entry entry = entry(attendee);
+      if (entry != null) {
+        busy.or(entry.summary(which));
+      }
+    }
+    return busy;
+  }
+
+  /**
+   * Returns the busy minutes of the attendee with ID {@code attendee}, or null if they have no
+   * events. The bitmap is shared and must not be changed.
+   */
+  DayBitmap attendeeBitmap(int attendee) {
+    Entry entry = entry(attendee);
+    return entry == null ? null : entry.bitmap();
+  }
+
+  /**
+   * Merges several sorted arrays into one sorted array by merging neighbouring pairs round after
+   * round, which takes O(n log k) for k arrays holding n values in total.
+   */
+  static int[] mergeSorted(int[][] arrays) {
+    int[][] round = arrays;
+    while (round.length > 1) {
+      int[][] next = new int[(round.length + 1) / 2][];
+      for (int i = 0; i < next.length; i++) {
+        next[i] = 2 * i + 1 < round.length ? merge(round[2 * i], round[2 * i + 1]) : round[2 * i];
+      }
+      round = next;
+    }
+    return round[0];
+  }
+
+  private static int[] merge(int[] a, int[] b) {
+    int[] out = new int[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < a.length && j < b.length) {
+      out[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+    }
+    while (i < a.length) {
+      out[k++] = a[i++];
+    }
+    while (j < b.length) {
+      out[k++] = b[j++];
+    }
+    return out;
+  }
+
+  /**
+   * The sorted starts and sorted ends of a group of events. Only the first {@code count} values of
+   * each array are meaningful.
+   */
+  static final class Bounds {
+    final int[] starts;
+    final int[] ends;
+    final int count;
+
+    Bounds(int[] starts, int[] ends, int count) {
+      this.starts = starts;
+      this.ends = ends;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Everything the index knows about one attendee. An entry's events never change once it is built;
+   * what is derived from them is only filled in on first use.
+   */
+  private static final class Entry {
+    static final Entry EMPTY = new Entry(new ArrayList<>());
+
+    final List<Event> events;
+    final int[] starts;
+    final int[] ends;
+    // The rest is only built the first time a query asks for it, since each engine uses one of
+    // them and most attendees are never queried between two changes. Two threads may both build
+    // one, but they build the same thing.
+    private volatile DayBitmap bitmap;
+    private volatile IntervalTree<Event> tree;
+    // One per resolution in FreeBusySummary.RESOLUTIONS.
+    private volatile FreeBusySummary[] summaries;
+
+    Entry(List<Event> events) {
+      Collections.sort(events, FindMeetingQuery.SORT_BY_START);
+      this.events = Collections.unmodifiableList(events);
+      this.starts = new int[events.size()];
+      this.ends = new int[events.size()];
+      for (int i = 0; i < events.size(); i++) {
+        starts[i] = events.get(i).getWhen().start();
+        ends[i] = events.get(i).getWhen().end();
+      }
+      // The starts are sorted along with the events, but the ends need sorting on their own.
+      Arrays.sort(ends);
+    }
+
+    private Entry(List<Event> events, int[] starts, int[] ends, DayBitmap bitmap) {
+      this.events = Collections.unmodifiableList(events);
+      this.starts = starts;
+      this.ends = ends;
+      this.bitmap = bitmap;
+    }
+
+    /**
+     * Returns the minutes during which this attendee is busy. The bitmap is shared and must not be
+     * changed.
+     */
+    DayBitmap bitmap() {
+      DayBitmap bitmap = this.bitmap;
+      if (bitmap == null) {
+        bitmap = new DayBitmap();
+        for (int i = 0; i < starts.length; i++) {
+          bitmap.setBusy(events.get(i).getWhen());
+        }
+        this.bitmap = bitmap;
+      }
+      return bitmap;
+    }
+
+    /**
+     * Returns this attendee's events by time.
+     */
+    IntervalTree<Event> tree() {
+      IntervalTree<Event> tree = this.tree;
+      if (tree == null) {
+        tree = IntervalTree.fromSorted(events, Event::getWhen);
+        this.tree = tree;
+      }
+      return tree;
+    }
+
+    /**
+     * Returns this attendee's summary at the {@code which}-th resolution in {@link
+     * FreeBusySummary#RESOLUTIONS}.
+     */
+    FreeBusySummary summary(int which) {
+      FreeBusySummary[] summaries = this.summaries;
+      if (summaries == null) {
+        summaries = new FreeBusySummary[FreeBusySummary.RESOLUTIONS.length];
+        for (int i = 0; i < summaries.length; i++) {
+          summaries[i] = FreeBusySummary.of(bitmap(), FreeBusySummary.RESOLUTIONS[i]);
+        }
+        this.summaries = summaries;
+      }
+      return summaries[which];
+    }
+
+    /**
+     * Returns a copy of this entry with {@code event} added.
+     */
+    Entry with(Event event) {
+      TimeRange when = event.getWhen();
+      // Insert after any events with the same start so that earlier additions stay first.
+      int at = insertionPoint(starts, when.start() + 1);
+
+      List<Event> changedEvents = new ArrayList<>(events.size() + 1);
+      changedEvents.addAll(events);
+      changedEvents.add(at, event);
+
+      // Adding an event only sets bits, so a bitmap that is already built is cheap to carry over.
+      DayBitmap changedBitmap = null;
+      if (bitmap != null) {
+        changedBitmap = new DayBitmap(bitmap);
+        changedBitmap.setBusy(when);
+      }
+      return new Entry(changedEvents, insert(starts, at, when.start()),
+          insert(ends, insertionPoint(ends, when.end()), when.end()), changedBitmap);
+    }
+
+    /**
+     * Returns a copy of this entry with {@code event} removed. The event must be in this entry.
+     */
+    Entry without(Event event) {
+      TimeRange when = event.getWhen();
+      int at = insertionPoint(starts, when.start());
+      while (!events.get(at).equals(event)) {
+        at++;
+      }
+
+      List<Event> changedEvents = new ArrayList<>(events);
+      changedEvents.remove(at);
+
+      // Bits can't be cleared for one event alone since other events may cover the same minutes,
+      // so the bitmap is left to be rebuilt if it is ever needed.
+      return new Entry(changedEvents, remove(starts, at),
+          remove(ends, insertionPoint(ends, when.end())), null);
+    }
+
+    /**
+     * Returns the index of the first value in {@code sorted} that is not less than {@code value}.
+     */
+    private static int insertionPoint(int[] sorted, int value) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle] < value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+      int[] changed = new int[values.length + 1];
+      System.arraycopy(values, 0, changed, 0, at);
+      changed[at] = value;
+      System.arraycopy(values, at, changed, at + 1, values.length - at);
+      return changed;
+    }
+
+    private static int[] remove(int[] values, int at) {
+      int[] changed = new int[values.length - 1];
+      System.arraycopy(values, 0, changed, 0, at);
+      System.arraycopy(values, at + 1, changed, at, values.length - at - 1);
+      return changed;
+    }
+  }
+}
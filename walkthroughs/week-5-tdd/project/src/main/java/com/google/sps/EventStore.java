@@ -0,0 +1,190 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The events the server knows about, which can be added, updated and removed while it is running.
+ * Every change publishes a new {@link Snapshot} with the next version number, holding an {@link
+ * EventIndex} that keeps the events under their ids and shares everything the change didn't touch
+ * with the previous one. Readers grab the current snapshot with a single volatile read, so they
+ * always see a consistent set of events and never wait for a writer. Writers take turns on a lock.
+ */
+public final class EventStore {
+  /**
+   * The events of the store as they were after one change. A snapshot never changes.
+   */
+  public static final class Snapshot {
+    private final long version;
+    private final EventIndex index;
+
+    private Snapshot(long version, EventIndex index) {
+      this.version = version;
+      this.index = index;
+    }
+
+    /**
+     * Returns the number of changes made to the store before this snapshot was published.
+     */
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * Returns the events indexed for queries.
+     */
+    public EventIndex getIndex() {
+      return index;
+    }
+
+    /**
+     * Returns a read-only map of every event keyed by id.
+     */
+    public Map<Long, Event> getEvents() {
+      return index.getEventsByKey();
+    }
+
+    /**
+     * Returns the event with the given id, or {@code null} if there is none.
+     */
+    public Event get(long id) {
+      return index.getEvent(id);
+    }
+  }
+
+  private final Object writeLock = new Object();
+
+  // Guarded by writeLock.
+  private long nextId = 1;
+
+  private volatile Snapshot current;
+
+  /**
+   * Creates a store holding {@code initialEvents}.
+   */
+  public EventStore(Collection<Event> initialEvents) {
+    current = new Snapshot(0, new EventIndex(nextId, initialEvents));
+    nextId += initialEvents.size();
+  }
+
+  /**
+   * Returns the events as they are right now. The returned snapshot never changes, even if the
+   * store does.
+   */
+  public Snapshot current() {
+    return current;
+  }
+
+  /**
+   * Returns the index of the current snapshot, for queries that don't need its version. The
+   * returned index never changes, even if the store does.
+   */
+  public EventIndex index() {
+    return current.index;
+  }
+
+  /**
+   * Adds {@code event} and returns the id it can be updated or removed with.
+   */
+  public long add(Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+
+    long id;
+    synchronized (writeLock) {
+      id = nextId++;
+      publish(current.index.withEvent(id, event));
+    }
+    return id;
+  }
+
+  /**
+   * Adds every event in {@code added} as a single change and returns the id of the first one. The
+   * rest get the ids that follow, in order. Readers see either none of the events or all of them.
+   */
+  public long addAll(Collection<Event> added) {
+    if (added == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+    for (Event event : added) {
+      if (event == null) {
+        throw new IllegalArgumentException("event cannot be null");
+      }
+    }
+
+    long firstId;
+    synchronized (writeLock) {
+      firstId = nextId;
+      nextId += added.size();
+      publish(current.index.withEvents(firstId, added));
+    }
+    return firstId;
+  }
+
+  /**
+   * Replaces the event with the given id by {@code event}. Returns {@code false} if there is no
+   * such event.
+   */
+  public boolean update(long id, Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+
+    synchronized (writeLock) {
+      if (current.get(id) == null) {
+        return false;
+      }
+      publish(current.index.withEvent(id, event));
+    }
+    return true;
+  }
+
+  /**
+   * Removes the event with the given id. Returns {@code false} if there is no such event.
+   */
+  public boolean remove(long id) {
+    synchronized (writeLock) {
+      if (current.get(id) == null) {
+        return false;
+      }
+      publish(current.index.withoutEvent(id));
+    }
+    return true;
+  }
+
+  /**
+   * Returns the event with the given id, or {@code null} if there is none.
+   */
+  public Event get(long id) {
+    return current.get(id);
+  }
+
+  /**
+   * Returns a read-only map of every event in the store keyed by id, as it is right now.
+   */
+  public Map<Long, Event> getEvents() {
+    return current.getEvents();
+  }
+
+  /**
+   * Publishes the next snapshot. Must be called holding {@code writeLock}.
+   */
+  private void publish(EventIndex index) {
+    current = new Snapshot(current.version + 1, index);
+  }
+}
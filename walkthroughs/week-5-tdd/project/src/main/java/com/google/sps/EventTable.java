@@ -0,0 +1,156 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The events of a day laid out column by column: one array of starts, one of ends, and every
+ * event's attendee IDs packed back to back into one shared array. Scanning the table walks a few
+ * flat arrays of {@code int}s from front to back instead of chasing an {@link Event} and its
+ * {@link TimeRange} for each row, and a scan allocates nothing per event.
+ *
+ * <p>Rows are sorted by start time. A second order over the rows, sorted by end time, lets a scan
+ * produce sorted ends without sorting them. A table is read-only once built.
+ */
+public final class EventTable {
+  private final int[] starts;
+  private final int[] ends;
+  // Row i's attendees run from attendees[attendeeOffsets[i]] up to attendeeOffsets[i + 1].
+  private final int[] attendeeOffsets;
+  private final int[] attendees;
+  // The rows ordered by their end time.
+  private final int[] byEnd;
+
+  /**
+   * Creates a new table. {@link Events#all()} can be passed straight in.
+   *
+   * @param events The events to lay out. Must be non-null.
+   */
+  public EventTable(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    // Ranges without a duration don't block anyone, so there is no need to keep them.
+    List<Event> rows = new ArrayList<>();
+    int attendeeCount = 0;
+    for (Event event : events) {
+      if (event.getWhen().duration() > 0) {
+        rows.add(event);
+        attendeeCount += event.getAttendeeIds().length;
+      }
+    }
+    Collections.sort(rows, FindMeetingQuery.SORT_BY_START);
+
+    int size = rows.size();
+    this.starts = new int[size];
+    this.ends = new int[size];
+    this.attendeeOffsets = new int[size + 1];
+    this.attendees = new int[attendeeCount];
+    int offset = 0;
+    for (int i = 0; i < size; i++) {
+      Event event = rows.get(i);
+      starts[i] = event.getWhen().start();
+      ends[i] = event.getWhen().end();
+      int[] ids = event.getAttendeeIds();
+      System.arraycopy(ids, 0, attendees, offset, ids.length);
+      attendeeOffsets[i] = offset;
+      offset += ids.length;
+    }
+    attendeeOffsets[size] = offset;
+
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Integer.compare(ends[a], ends[b]));
+    this.byEnd = new int[size];
+    for (int i = 0; i < size; i++) {
+      byEnd[i] = order[i];
+    }
+  }
+
+  /**
+   * Returns the number of rows in the table. Events without a duration are not counted.
+   */
+  public int size() {
+    return starts.length;
+  }
+
+  /**
+   * Returns the sorted starts and sorted ends of every event attended by someone in {@code
+   * attendees}, given as sorted attendee IDs. This takes one pass over the table to find the
+   * matching rows and no sorting. Besides the results, which hold only the matching rows, a query
+   * allocates one bit per row.
+   */
+  EventIndex.Bounds bounds(int[] attendees) {
+    int size = starts.length;
+    long[] matched = new long[(size + Long.SIZE - 1) / Long.SIZE];
+    int count = 0;
+    for (int row = 0; row < size; row++) {
+      if (attends(row, attendees)) {
+        matched[row / Long.SIZE] |= 1L << row;
+        count++;
+      }
+    }
+
+    int[] matchedStarts = new int[count];
+    int[] matchedEnds = new int[count];
+    // Rows are in start order, so walking the set bits gives sorted starts.
+    int i = 0;
+    for (int word = 0; word < matched.length && i < count; word++) {
+      long bits = matched[word];
+      while (bits != 0) {
+        int row = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        matchedStarts[i++] = starts[row];
+        bits &= bits - 1;
+      }
+    }
+
+    int j = 0;
+    for (int k = 0; k < size && j < count; k++) {
+      int row = byEnd[k];
+      if ((matched[row / Long.SIZE] & (1L << row)) != 0) {
+        matchedEnds[j++] = ends[row];
+      }
+    }
+    return new EventIndex.Bounds(matchedStarts, matchedEnds, count);
+  }
+
+  /**
+   * Returns whether someone in the sorted IDs {@code ids} attends the event in {@code row}.
+   */
+  private boolean attends(int row, int[] ids) {
+    int i = attendeeOffsets[row];
+    int end = attendeeOffsets[row + 1];
+    int j = 0;
+    while (i < end && j < ids.length) {
+      if (attendees[i] == ids[j]) {
+        return true;
+      }
+      if (attendees[i] < ids[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+}
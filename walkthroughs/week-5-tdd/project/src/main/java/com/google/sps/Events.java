@@ -16,6 +16,8 @@
 package com.google.sps;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public final class Events {
   private static final String PERSON_AMELIA = "Amelia";
@@ -57,7 +59,7 @@ public final class Events {
   private static final int TIME_2030 = TimeRange.getTimeInMinutes(20, 30);
   private static final int TIME_2100 = TimeRange.getTimeInMinutes(21, 0);
 
-  public static final Event[] events = {
+  private static final List<Event> EVENTS = Collections.unmodifiableList(Arrays.asList(
       new Event("1-on-1 : Project Management", TimeRange.fromStartEnd(TIME_1500, TIME_1530, false),
           Arrays.asList(PERSON_LOGAN)),
       new Event("1-on-1 Career Advice", TimeRange.fromStartEnd(TIME_1000, TIME_1030, false),
@@ -129,10 +131,16 @@ public final class Events {
       new Event("Vendor Sync", TimeRange.fromStartEnd(TIME_1000, TIME_1030, false),
           Arrays.asList(PERSON_EMMA)),
       new Event("Work Trip Planning", TimeRange.fromStartEnd(TIME_1000, TIME_1030, false),
-          Arrays.asList(PERSON_LIAM)),
-  };
+          Arrays.asList(PERSON_LIAM))));
 
   private Events() {
     // Disallow instances.
   }
+
+  /**
+   * Returns the sample events. The list is read-only, and so are the events in it.
+   */
+  public static List<Event> all() {
+    return EVENTS;
+  }
 }
@@ -0,0 +1,172 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the merged busy time of recently queried groups of attendees, so that repeated
+ * queries for the same people only pay for the sweep over their busy ranges, whatever the meeting
+ * duration. Groups are keyed regardless of the order their attendees are given in. The least
+ * recently used group is evicted once the cache is full.
+ *
+ * <p>Each group also remembers which of the index's per-attendee entries its busy time came from.
+ * Indexes share the entries of attendees a change didn't touch, so a cached group is used only if
+ * every one of its attendees still has the same entry in the index being queried. That keeps the
+ * cache right for any mix of old and new snapshots without having to be told about changes.
+ */
+public final class FreeBusyCache {
+  private final int maxEntries;
+  private final LinkedHashMap<Group, Busy> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxEntries The most groups of attendees to remember. Must be positive.
+   */
+  public FreeBusyCache(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+
+    this.maxEntries = maxEntries;
+    // Access order makes the eldest entry the least recently used one.
+    this.entries = new LinkedHashMap<Group, Busy>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Group, Busy> eldest) {
+        if (size() > FreeBusyCache.this.maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the merged busy ranges of {@code attendees} in {@code index}, computing them unless
+   * they are cached for the same events. The ranges are disjoint and sorted, so their starts and
+   * ends are both sorted and can go straight into a sweep.
+   */
+  EventIndex.Bounds busy(EventIndex index, Collection<String> attendees) {
+    Group group = new Group(AttendeeDirectory.shared().find(attendees));
+    Object[] stamps = new Object[group.ids.length];
+    for (int i = 0; i < stamps.length; i++) {
+      stamps[i] = index.stamp(group.ids[i]);
+    }
+
+    synchronized (this) {
+      Busy cached = entries.get(group);
+      if (cached != null && Arrays.equals(cached.stamps, stamps)) {
+        hits.incrementAndGet();
+        return cached.bounds;
+      }
+    }
+    misses.incrementAndGet();
+
+    // Merging happens outside the lock so that one slow group doesn't hold up the others.
+    EventIndex.Bounds bounds = index.bounds(group.ids);
+    int[] merged = new int[2 * bounds.count];
+    int count = TimeSweep.mergeBusy(bounds.starts, bounds.ends, bounds.count, merged);
+    int[] starts = new int[count];
+    int[] ends = new int[count];
+    for (int i = 0; i < count; i++) {
+      starts[i] = merged[2 * i];
+      ends[i] = merged[2 * i + 1];
+    }
+    EventIndex.Bounds busy = new EventIndex.Bounds(starts, ends, count);
+
+    synchronized (this) {
+      entries.put(group, new Busy(stamps, busy));
+    }
+    return busy;
+  }
+
+  /**
+   * Forgets every group.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of groups currently cached.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of lookups that were answered from the cache.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that had to compute the busy time.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the number of groups that were dropped to make room for others.
+   */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * The sorted attendee IDs of a group, compared by value.
+   */
+  private static final class Group {
+    private final int[] ids;
+
+    Group(int[] ids) {
+      this.ids = ids;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Group && Arrays.equals(ids, ((Group) other).ids);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(ids);
+    }
+  }
+
+  /**
+   * The merged busy time of a group, and the index entries of its attendees it was computed from.
+   */
+  private static final class Busy {
+    private final Object[] stamps;
+    private final EventIndex.Bounds bounds;
+
+    Busy(Object[] stamps, EventIndex.Bounds bounds) {
+      this.stamps = stamps;
+      this.bounds = bounds;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A coarse picture of a day's busy time, split into blocks of a fixed number of minutes. Each block
+ * remembers whether any minute in it is busy and whether every minute in it is busy. That is
+ * enough to settle many questions of the form "is there a free hole of this length in this window"
+ * without looking at individual minutes or events:
+ *
+ * <ul>
+ *   <li>A long enough run of blocks without any busy minute is certainly free.
+ *   <li>A free hole can't cross a block where every minute is busy, so if no run of such blocks is
+ *       long enough, there certainly isn't one.
+ * </ul>
+ *
+ * <p>Summaries of several people are combined with {@link #or}, just like their bitmaps.
+ */
+public final class FreeBusySummary {
+  /** The block sizes, in minutes, that the index keeps summaries for. */
+  static final int[] RESOLUTIONS = {15, 30, 60};
+
+  private static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+
+  private final int resolution;
+  private final long[] touched;
+  private final long[] full;
+
+  private FreeBusySummary(int resolution) {
+    int words = (MINUTES / resolution + Long.SIZE - 1) / Long.SIZE;
+    this.resolution = resolution;
+    this.touched = new long[words];
+    this.full = new long[words];
+  }
+
+  /**
+   * Creates a summary where every block is free.
+   *
+   * @param resolution The length of a block in minutes. Must divide the day evenly.
+   */
+  public static FreeBusySummary free(int resolution) {
+    if (resolution <= 0 || MINUTES % resolution != 0) {
+      throw new IllegalArgumentException("resolution must divide the day evenly");
+    }
+    return new FreeBusySummary(resolution);
+  }
+
+  /**
+   * Creates the summary of {@code busy} in blocks of {@code resolution} minutes.
+   */
+  public static FreeBusySummary of(DayBitmap busy, int resolution) {
+    FreeBusySummary summary = free(resolution);
+    for (int block = 0; block < MINUTES / resolution; block++) {
+      int busyMinutes = busy.countBusy(block * resolution, (block + 1) * resolution);
+      if (busyMinutes > 0) {
+        summary.touched[block / Long.SIZE] |= 1L << block;
+      }
+      if (busyMinutes == resolution) {
+        summary.full[block / Long.SIZE] |= 1L << block;
+      }
+    }
+    return summary;
+  }
+
+  /**
+   * Returns the length of a block in minutes.
+   */
+  public int getResolution() {
+    return resolution;
+  }
+
+  /**
+   * Marks every block that is busy in {@code other} as busy in this summary too. Both summaries
+   * must have the same resolution.
+   */
+  public void or(FreeBusySummary other) {
+    if (other.resolution != resolution) {
+      throw new IllegalArgumentException("resolutions must match");
+    }
+    for (int i = 0; i < touched.length; i++) {
+      touched[i] |= other.touched[i];
+      full[i] |= other.full[i];
+    }
+  }
+
+  /**
+   * Returns {@code false} if there is certainly no free hole of {@code duration} minutes within
+   * {@code window}. A {@code true} answer only means there might be one.
+   */
+  public boolean mayFit(long duration, TimeRange window) {
+    long run = 0;
+    for (int block = firstBlock(window); block < lastBlock(window); block++) {
+      if (isSet(full, block)) {
+        run = 0;
+        continue;
+      }
+      // Only the part of the block inside the window can hold the hole.
+      int start = Math.max(block * resolution, window.start());
+      int end = Math.min((block + 1) * resolution, window.end());
+      run += end - start;
+      if (run >= duration) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if there is certainly a free hole of {@code duration} minutes within
+   * {@code window}. A {@code false} answer only means there might not be one.
+   */
+  public boolean surelyFits(long duration, TimeRange window) {
+    long run = 0;
+    for (int block = firstBlock(window); block < lastBlock(window); block++) {
+      boolean inside = block * resolution >= window.start()
+          && (block + 1) * resolution <= window.end();
+      if (!inside || isSet(touched, block)) {
+        run = 0;
+        continue;
+      }
+      run += resolution;
+      if (run >= duration) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int firstBlock(TimeRange window) {
+    return Math.max(window.start(), 0) / resolution;
+  }
+
+  private int lastBlock(TimeRange window) {
+    return (Math.min(window.end(), MINUTES) + resolution - 1) / resolution;
+  }
+
+  private static boolean isSet(long[] blocks, int block) {
+    return (blocks[block / Long.SIZE] & (1L << block)) != 0;
+  }
+}
@@ -0,0 +1,170 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A static interval tree over items that each take place during a {@link TimeRange}. The items are
+ * kept sorted by start time in an array, which doubles as a balanced binary tree: the middle of
+ * any slice is the root of that slice. Each root also records the latest end in its slice, so
+ * whole slices that finish too early can be skipped. Finding the k items that overlap a range
+ * takes O(log n + k). Items without a duration never overlap anything, so they are left out.
+ *
+ * @param <T> the type of item in the tree
+ */
+public final class IntervalTree<T> {
+  private final List<T> items;
+  private final int[] starts;
+  private final int[] ends;
+  // The latest end within the slice whose root is at each position.
+  private final int[] maxEnds;
+
+  private IntervalTree(List<T> sortedItems, Function<T, TimeRange> when) {
+    this.items = Collections.unmodifiableList(sortedItems);
+    this.starts = new int[sortedItems.size()];
+    this.ends = new int[sortedItems.size()];
+    this.maxEnds = new int[sortedItems.size()];
+    for (int i = 0; i < sortedItems.size(); i++) {
+      TimeRange range = when.apply(sortedItems.get(i));
+      starts[i] = range.start();
+      ends[i] = range.end();
+    }
+    computeMaxEnds(0, sortedItems.size());
+  }
+
+  /**
+   * Creates a new tree.
+   *
+   * @param items The items to put in the tree. Must be non-null.
+   * @param when Returns the time during which an item takes place. Must be non-null.
+   */
+  public static <T> IntervalTree<T> of(Collection<T> items, Function<T, TimeRange> when) {
+    return new IntervalTree<>(sortByStart(items, when), when);
+  }
+
+  /**
+   * Creates a tree from items that are already sorted by start time and all have a duration,
+   * which skips the sort.
+   */
+  static <T> IntervalTree<T> fromSorted(List<T> sortedItems, Function<T, TimeRange> when) {
+    return new IntervalTree<>(new ArrayList<>(sortedItems), when);
+  }
+
+  /**
+   * Returns every item that overlaps {@code range}, sorted by start time.
+   */
+  public List<T> overlapping(TimeRange range) {
+    List<T> found = new ArrayList<>();
+    if (range.duration() > 0) {
+      collect(0, items.size(), range.start(), range.end(), found);
+    }
+    return found;
+  }
+
+  /**
+   * Returns whether any item overlaps {@code range}. This stops at the first overlap, so it takes
+   * O(log n).
+   */
+  public boolean anyOverlapping(TimeRange range) {
+    return range.duration() > 0 && find(0, items.size(), range.start(), range.end());
+  }
+
+  /**
+   * Returns the number of items in the tree.
+   */
+  public int size() {
+    return items.size();
+  }
+
+  private int computeMaxEnds(int low, int high) {
+    if (low >= high) {
+      return Integer.MIN_VALUE;
+    }
+    int middle = (low + high) >>> 1;
+    int maxEnd = Math.max(ends[middle],
+        Math.max(computeMaxEnds(low, middle), computeMaxEnds(middle + 1, high)));
+    maxEnds[middle] = maxEnd;
+    return maxEnd;
+  }
+
+  private void collect(int low, int high, int start, int end, List<T> found) {
+    if (low >= high) {
+      return;
+    }
+    int middle = (low + high) >>> 1;
+    // Nothing in this slice ends after the range starts, so nothing in it can overlap.
+    if (maxEnds[middle] <= start) {
+      return;
+    }
+    collect(low, middle, start, end, found);
+    // Everything from the root onwards starts too late once the root does.
+    if (starts[middle] >= end) {
+      return;
+    }
+    if (ends[middle] > start) {
+      found.add(items.get(middle));
+    }
+    collect(middle + 1, high, start, end, found);
+  }
+
+  private boolean find(int low, int high, int start, int end) {
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (maxEnds[middle] <= start) {
+        return false;
+      }
+      if (starts[middle] >= end) {
+        // The root and everything after it start too late, so only the left slice is left.
+        high = middle;
+        continue;
+      }
+      if (ends[middle] > start) {
+        return true;
+      }
+      // Every item in the left slice starts no later than the root, and so before the range ends.
+      // If any of them also ends after the range starts, it overlaps.
+      if (low < middle && maxEnds[(low + middle) >>> 1] > start) {
+        return true;
+      }
+      low = middle + 1;
+    }
+    return false;
+  }
+
+  private static <T> List<T> sortByStart(Collection<T> items, Function<T, TimeRange> when) {
+    if (items == null) {
+      throw new IllegalArgumentException("items cannot be null");
+    }
+
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    List<T> sorted = new ArrayList<>();
+    for (T item : items) {
+      if (when.apply(item).duration() > 0) {
+        sorted.add(item);
+      }
+    }
+    Collections.sort(sorted, Comparator.comparing(when, TimeRange.ORDER_BY_START));
+    return sorted;
+  }
+}
@@ -0,0 +1,190 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Picks a start time for each of several meetings so that no two meetings that share an attendee
+ * overlap. Each meeting's domain is the sorted list of start times its own attendees are free for.
+ *
+ * <p>Meetings are placed one at a time by backtracking, fewest choices first, trying the earliest
+ * start times first. Whether the rest can still be placed only depends on the start times of the
+ * placed meetings that clash with one still to come, so a failed state is remembered by those
+ * start times alone and never searched again, however the other meetings were placed. Even so the
+ * search can take time exponential in the number of meetings, so it gives up once its deadline
+ * passes.
+ */
+final class MeetingPlacement {
+  private final int[][] domains;
+  private final int[] durations;
+  private final boolean[][] conflicts;
+
+  private final Integer[] order;
+  // relevant[depth][i] is whether the i-th meeting placed clashes with any placed from depth on.
+  private final boolean[][] relevant;
+  private final int[] starts;
+  private final Set<State> failed = new HashSet<>();
+  private final long deadline;
+  private boolean complete = true;
+
+  /**
+   * Creates a search for a start time for every meeting such that no two meetings that share an
+   * attendee overlap.
+   *
+   * @param domains The start times each meeting can take, sorted ascending.
+   * @param durations The length of each meeting in minutes.
+   * @param conflicts Whether two meetings share an attendee and so cannot overlap.
+   * @param deadline The {@link System#nanoTime()} after which to stop searching.
+   */
+  MeetingPlacement(int[][] domains, int[] durations, boolean[][] conflicts, long deadline) {
+    this.domains = domains;
+    this.durations = durations;
+    this.conflicts = conflicts;
+    this.deadline = deadline;
+    this.starts = new int[domains.length];
+    Arrays.fill(starts, -1);
+
+    order = new Integer[domains.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Integer.compare(domains[a].length, domains[b].length);
+      }
+    });
+
+    relevant = new boolean[order.length + 1][order.length];
+    for (int depth = 0; depth <= order.length; depth++) {
+      for (int i = 0; i < depth; i++) {
+        for (int later = depth; later < order.length; later++) {
+          relevant[depth][i] |= conflicts[order[i]][order[later]];
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs the search and returns a start time for every meeting, or {@code null} if there is no way
+   * to place them all or the deadline passed first.
+   */
+  int[] run() {
+    return place(0) ? starts : null;
+  }
+
+  /**
+   * Returns whether the last {@link #run()} finished before the deadline, in which case a {@code
+   * null} answer means there really is no way to place the meetings.
+   */
+  boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Returns a start time for every meeting such that each one starts no earlier than the one before
+   * it ends, or {@code null} if there is none. Starting a meeting later only ever leaves less room
+   * for the ones after it, so placing each as early as it can go is always best and no choice ever
+   * has to be taken back.
+   */
+  static int[] inOrder(int[][] domains, int[] durations) {
+    int[] starts = new int[domains.length];
+    int earliest = Integer.MIN_VALUE;
+    for (int i = 0; i < domains.length; i++) {
+      int at = Arrays.binarySearch(domains[i], earliest);
+      at = at >= 0 ? at : -at - 1;
+      if (at == domains[i].length) {
+        return null;
+      }
+      starts[i] = domains[i][at];
+      earliest = starts[i] + durations[i];
+    }
+    return starts;
+  }
+
+  private boolean place(int depth) {
+    if (depth == order.length) {
+      return true;
+    }
+    if (!complete) {
+      return false;
+    }
+    if (System.nanoTime() - deadline > 0) {
+      complete = false;
+      return false;
+    }
+    State state = new State(depth);
+    if (failed.contains(state)) {
+      return false;
+    }
+
+    int meeting = order[depth];
+    for (int start : domains[meeting]) {
+      if (fits(meeting, start)) {
+        starts[meeting] = start;
+        if (place(depth + 1)) {
+          return true;
+        }
+        starts[meeting] = -1;
+      }
+    }
+    // A search cut short by the deadline hasn't shown that this state fails.
+    if (complete) {
+      failed.add(state);
+    }
+    return false;
+  }
+
+  private boolean fits(int meeting, int start) {
+    int end = start + durations[meeting];
+    for (int other = 0; other < starts.length; other++) {
+      if (starts[other] >= 0 && conflicts[meeting][other]
+          && start < starts[other] + durations[other] && starts[other] < end) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The part of a partial placement that the meetings still to come can see: how deep the search
+   * is, and the start times of the placed meetings that clash with any of the rest.
+   */
+  private final class State {
+    private final int[] key;
+
+    State(int depth) {
+      key = new int[depth + 1];
+      key[0] = depth;
+      for (int i = 0; i < depth; i++) {
+        key[i + 1] = relevant[depth][i] ? starts[order[i]] : -1;
+      }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof State && Arrays.equals(key, ((State) other).key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(key);
+    }
+  }
+}
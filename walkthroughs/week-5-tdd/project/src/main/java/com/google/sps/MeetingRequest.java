@@ -14,8 +14,6 @@
 
 package com.google.sps;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -27,7 +25,8 @@ public final class MeetingRequest {
   /////////////////////////////////////////////
   // Any new fields added to this class
   // must be reflected in the class of the
-  // same name in script.js
+  // same name in script.js. Transient
+  // fields are caches and are not sent.
   /////////////////////////////////////////////
 
   // All the people that should be attending this new meeting. Use a set to avoid duplicates.
@@ -39,6 +38,11 @@ public final class MeetingRequest {
   // The duration of the meeting in minutes.
   private final long duration;
 
+  // The attendees' IDs as last looked up. Names are never interned for a request, so that asking
+  // about people without events doesn't grow the shared AttendeeDirectory.
+  private transient volatile Ids attendeeIds;
+  private transient volatile Ids optionalAttendeeIds;
+
   public MeetingRequest(Collection<String> attendees, long duration) {
     this.duration = duration;
     this.attendees.addAll(attendees);
@@ -58,12 +62,33 @@ public final class MeetingRequest {
     return Collections.unmodifiableCollection(optional_attendees);
   }
 
+  /**
+   * Returns the sorted IDs of the required attendees that have ever had an event. Anyone else can't
+   * be busy, so they are left out. The array is shared and must not be changed.
+   */
+  int[] getAttendeeIds() {
+    Ids ids = Ids.of(attendees, attendeeIds);
+    attendeeIds = ids;
+    return ids.ids;
+  }
+
+  /**
+   * Returns the sorted IDs of the optional attendees that have ever had an event. The array is
+   * shared and must not be changed.
+   */
+  int[] getOptionalAttendeeIds() {
+    Ids ids = Ids.of(optional_attendees, optionalAttendeeIds);
+    optionalAttendeeIds = ids;
+    return ids.ids;
+  }
+
   /**
    * Adds one optional attendee for the meeting.
    */
   public void addOptionalAttendee(String attendee) {
     if (!attendees.contains(attendee)) {
       optional_attendees.add(attendee);
+      optionalAttendeeIds = null;
     }
   }
 
@@ -73,4 +98,30 @@ public final class MeetingRequest {
   public long getDuration() {
     return duration;
   }
+
+  /**
+   * The IDs found for a set of names, and how many names the directory held when they were looked
+   * up. The directory only grows, so the IDs stay right until it does, and for good once every name
+   * has been found.
+   */
+  private static final class Ids {
+    final int[] ids;
+    final int directorySize;
+
+    private Ids(int[] ids, int directorySize) {
+      this.ids = ids;
+      this.directorySize = directorySize;
+    }
+
+    static Ids of(Collection<String> names, Ids cached) {
+      AttendeeDirectory directory = AttendeeDirectory.shared();
+      if (cached != null
+          && (cached.ids.length == names.size() || cached.directorySize == directory.size())) {
+        return cached;
+      }
+      // Read the size first, so that a name added during the lookup is looked up again next time.
+      int size = directory.size();
+      return new Ids(directory.find(names), size);
+    }
+  }
 }
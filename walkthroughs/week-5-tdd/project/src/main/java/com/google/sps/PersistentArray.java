@@ -0,0 +1,365 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable array of values indexed by non-negative {@code long} keys, any of which may be
+ * empty. The values live in a tree of 32-way nodes, so looking up a key takes a handful of steps
+ * and a change copies only the nodes on the path to the key it changes. Everything else is shared
+ * with the array the change was made to, which is what lets a new version of an index be published
+ * without copying the old one.
+ *
+ * <p>Values are visited in key order. Each node counts the values below it, so the n-th value can
+ * be found without visiting the ones before it.
+ */
+final class PersistentArray<T> {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+  private static final PersistentArray<Object> EMPTY = new PersistentArray<>(null, 0);
+
+  // Null when the array is empty. Otherwise the tree holds the keys below 1L << (shift + BITS),
+  // and the nodes shift / BITS levels down hold the values themselves.
+  private final Node root;
+  private final int shift;
+
+  private PersistentArray(Node root, int shift) {
+    this.root = root;
+    this.shift = shift;
+  }
+
+  /**
+   * Returns the array without any values.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> PersistentArray<T> empty() {
+    return (PersistentArray<T>) EMPTY;
+  }
+
+  /**
+   * Returns the number of keys that have a value.
+   */
+  int size() {
+    return root == null ? 0 : root.count;
+  }
+
+  /**
+   * Returns the value at {@code key}, or null if there is none.
+   */
+  @SuppressWarnings("unchecked")
+  T get(long key) {
+    if (root == null || key < 0 || !fits(key, shift)) {
+      return null;
+    }
+    Node node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Node) node.slots[(int) (key >>> level) & MASK];
+      if (node == null) {
+        return null;
+      }
+    }
+    return (T) node.slots[(int) key & MASK];
+  }
+
+  /**
+   * Returns a copy of this array with {@code value} at {@code key}, or with nothing there if {@code
+   * value} is null.
+   */
+  PersistentArray<T> with(long key, T value) {
+    return toBuilder().set(key, value).build();
+  }
+
+  /**
+   * Returns a copy of this array without a value at {@code key}.
+   */
+  PersistentArray<T> without(long key) {
+    return get(key) == null ? this : with(key, null);
+  }
+
+  /**
+   * Returns a builder that starts out holding the values of this array. The array itself is never
+   * changed by it.
+   */
+  Builder<T> toBuilder() {
+    return new Builder<>(root, shift);
+  }
+
+  /**
+   * Returns a read-only view of the values in key order.
+   */
+  List<T> values() {
+    return new AbstractList<T>() {
+      @Override
+      public T get(int index) {
+        if (index < 0 || index >= size()) {
+          throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+        }
+        return nth(index);
+      }
+
+      @Override
+      public Iterator<T> iterator() {
+        Iterator<Map.Entry<Long, T>> entries = new EntryIterator();
+        return new Iterator<T>() {
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public T next() {
+            return entries.next().getValue();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return PersistentArray.this.size();
+      }
+    };
+  }
+
+  /**
+   * Returns a read-only view of the values keyed by their keys, iterated in key order.
+   */
+  Map<Long, T> asMap() {
+    return new AbstractMap<Long, T>() {
+      @Override
+      public T get(Object key) {
+        return key instanceof Long ? PersistentArray.this.get((Long) key) : null;
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+        return get(key) != null;
+      }
+
+      @Override
+      public int size() {
+        return PersistentArray.this.size();
+      }
+
+      @Override
+      public Set<Map.Entry<Long, T>> entrySet() {
+        return new AbstractSet<Map.Entry<Long, T>>() {
+          @Override
+          public Iterator<Map.Entry<Long, T>> iterator() {
+            return new EntryIterator();
+          }
+
+          @Override
+          public int size() {
+            return PersistentArray.this.size();
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Returns the {@code n}-th value in key order, which must exist.
+   */
+  @SuppressWarnings("unchecked")
+  private T nth(int n) {
+    Node node = root;
+    for (int level = shift; level >= 0; level -= BITS) {
+      for (Object slot : node.slots) {
+        if (slot == null) {
+          continue;
+        }
+        int count = level == 0 ? 1 : ((Node) slot).count;
+        if (n < count) {
+          if (level == 0) {
+            return (T) slot;
+          }
+          node = (Node) slot;
+          break;
+        }
+        n -= count;
+      }
+    }
+    throw new IllegalStateException("counts don't match the values");
+  }
+
+  /**
+   * Returns whether a tree whose root is {@code shift} bits up holds {@code key}.
+   */
+  private static boolean fits(long key, int shift) {
+    return shift + BITS >= Long.SIZE - 1 || key < 1L << (shift + BITS);
+  }
+
+  /**
+   * Makes many changes to an array at once. Nodes the builder made itself are changed in place, so
+   * a batch of changes copies each shared node at most once. Building hands the nodes over to the
+   * array, and any later change copies them again.
+   */
+  static final class Builder<T> {
+    private Object owner = new Object();
+    private Node root;
+    private int shift;
+
+    private Builder(Node root, int shift) {
+      this.root = root;
+      this.shift = shift;
+    }
+
+    /**
+     * Puts {@code value} at {@code key}, or removes the value there if {@code value} is null.
+     */
+    Builder<T> set(long key, T value) {
+      if (key < 0) {
+        throw new IllegalArgumentException("key cannot be negative: " + key);
+      }
+      if (value == null && (root == null || !fits(key, shift))) {
+        return this;
+      }
+
+      while (!fits(key, shift)) {
+        if (root != null) {
+          Node grown = new Node(owner);
+          grown.slots[0] = root;
+          grown.count = root.count;
+          root = grown;
+        }
+        shift += BITS;
+      }
+      root = set(root, shift, key, value);
+      if (root.count == 0) {
+        root = null;
+        shift = 0;
+      }
+      return this;
+    }
+
+    /**
+     * Returns an array holding the values set so far.
+     */
+    PersistentArray<T> build() {
+      // Anything set from now on must not change the nodes the array holds.
+      owner = new Object();
+      return root == null ? empty() : new PersistentArray<>(root, shift);
+    }
+
+    private Node set(Node node, int level, long key, T value) {
+      Node editable = node == null ? new Node(owner) : node.editableBy(owner);
+      int slot = (int) (key >>> level) & MASK;
+      Object old = editable.slots[slot];
+      if (level == 0) {
+        editable.slots[slot] = value;
+        editable.count += (value == null ? 0 : 1) - (old == null ? 0 : 1);
+        return editable;
+      }
+
+      Node child = (Node) old;
+      int before = child == null ? 0 : child.count;
+      Node changed = set(child, level - BITS, key, value);
+      editable.slots[slot] = changed.count == 0 ? null : changed;
+      editable.count += changed.count - before;
+      return editable;
+    }
+  }
+
+  /**
+   * One node of the tree, holding either child nodes or values. A node is only ever changed by the
+   * builder that owns it, before it is handed to an array.
+   */
+  private static final class Node {
+    final Object owner;
+    final Object[] slots;
+    int count;
+
+    Node(Object owner) {
+      this(owner, new Object[WIDTH], 0);
+    }
+
+    private Node(Object owner, Object[] slots, int count) {
+      this.owner = owner;
+      this.slots = slots;
+      this.count = count;
+    }
+
+    Node editableBy(Object editor) {
+      return owner == editor ? this : new Node(editor, slots.clone(), count);
+    }
+  }
+
+  /**
+   * Walks the values in key order, keeping the path from the root to the current value.
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<Long, T>> {
+    private final Node[] path = new Node[shift / BITS + 1];
+    private final int[] slots = new int[path.length];
+    private int depth;
+    private Map.Entry<Long, T> next;
+
+    EntryIterator() {
+      path[0] = root;
+      slots[0] = -1;
+      depth = root == null ? -1 : 0;
+      next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<Long, T> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<Long, T> current = next;
+      next = advance();
+      return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map.Entry<Long, T> advance() {
+      while (depth >= 0) {
+        int slot = ++slots[depth];
+        if (slot == WIDTH) {
+          depth--;
+          continue;
+        }
+        Object child = path[depth].slots[slot];
+        if (child == null) {
+          continue;
+        }
+        if (depth == path.length - 1) {
+          long key = 0;
+          for (int i = 0; i <= depth; i++) {
+            key = (key << BITS) | slots[i];
+          }
+          return new AbstractMap.SimpleImmutableEntry<>(key, (T) child);
+        }
+        depth++;
+        path[depth] = (Node) child;
+        slots[depth] = -1;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A time for each of several meetings, as found by {@link FindMeetingQuery#placeAll}, along with
+ * whether the search got to finish.
+ */
+public final class Placement {
+  private final List<TimeRange> times;
+  private final boolean complete;
+
+  Placement(List<TimeRange> times, boolean complete) {
+    this.times = Collections.unmodifiableList(times);
+    this.complete = complete;
+  }
+
+  /**
+   * Returns one time for each meeting, in the order they were asked for, or an empty list if they
+   * couldn't all be placed.
+   */
+  public List<TimeRange> getTimes() {
+    return times;
+  }
+
+  /**
+   * Returns whether the search finished within its budget. If it did not, {@link #getTimes()} is
+   * empty even though the meetings might fit.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public String toString() {
+    return times + (complete ? "" : " (incomplete)");
+  }
+}
@@ -0,0 +1,158 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * Answers meeting queries without allocating. A context owns all the scratch space a query needs
+ * and writes the free slots into a buffer supplied by the caller, so once a thread has its context
+ * the steady state creates no garbage at all.
+ *
+ * <p>Contexts are not thread-safe. Keep one per thread, for example in a {@code ThreadLocal}.
+ */
+public final class QueryContext {
+  private static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+
+  private final DayBitmap mandatory = new DayBitmap();
+  // For every start minute, how many optional attendees would miss a meeting starting then.
+  private final int[] busyOptionals = new int[MINUTES + 2];
+
+  /**
+   * Finds the same times as {@link FindMeetingQuery#query(EventIndex, MeetingRequest)} and writes
+   * them into {@code out} as {@code [start, end)} pairs, earliest first.
+   *
+   * <p>Attendees are given as IDs from {@link AttendeeDirectory#shared()}, so that callers can look
+   * up the people they query often once and reuse the arrays. Use -1 for people the directory
+   * doesn't know; they are free all day, but still count as attendees.
+   *
+   * @param out The buffer to write into. Only the first {@code out.length / 2} slots are written.
+   * @return The number of slots found, which is more than {@code out} could hold if it was too
+   *     small.
+   */
+  public int query(EventIndex index, int[] attendees, int[] optionalAttendees, long duration,
+      int[] out) {
+    if (duration > MINUTES) {
+      return 0;
+    }
+
+    if (index.size() == 0 || (attendees.length == 0 && optionalAttendees.length == 0)) {
+      return write(out, 0, TimeRange.WHOLE_DAY.start(), TimeRange.WHOLE_DAY.end());
+    }
+
+    long minimum = Math.max(duration, 1);
+    mandatory.clear();
+    for (int attendee : attendees) {
+      DayBitmap busy = index.attendeeBitmap(attendee);
+      if (busy != null) {
+        mandatory.or(busy);
+      }
+    }
+
+    if (optionalAttendees.length == 0) {
+      return writeFree(out, minimum);
+    }
+    countBusyOptionalAttendees(index, optionalAttendees, minimum);
+
+    // Keep the runs of start times inside the mandatory gaps where no optional attendee is busy.
+    int count = 0;
+    int start = mandatory.nextFree(0);
+    while (start < MINUTES) {
+      int end = mandatory.nextBusy(start);
+      int latestStart = end - (int) minimum;
+      int runStart = -1;
+      for (int t = start; t <= latestStart + 1; t++) {
+        boolean free = t <= latestStart && busyOptionals[t] == 0;
+        if (free && runStart < 0) {
+          runStart = t;
+        } else if (!free && runStart >= 0) {
+          count = write(out, count, runStart, t - 1 + (int) minimum);
+          runStart = -1;
+        }
+      }
+      start = mandatory.nextFree(end);
+    }
+
+    if (count > 0 || attendees.length == 0) {
+      return count;
+    }
+    return writeFree(out, minimum);
+  }
+
+  /**
+   * Fills {@link #busyOptionals} for a meeting of {@code duration} minutes. Works like the counter
+   * in {@code FindMeetingQuery}, reading each optional attendee's busy runs from their bitmap.
+   */
+  private void countBusyOptionalAttendees(EventIndex index, int[] optionals, long duration) {
+    int latestStart = MINUTES - (int) duration;
+    for (int t = 0; t <= latestStart + 1; t++) {
+      busyOptionals[t] = 0;
+    }
+
+    for (int optional : optionals) {
+      DayBitmap busy = index.attendeeBitmap(optional);
+      if (busy == null) {
+        continue;
+      }
+      int start = busy.nextBusy(0);
+      while (start < MINUTES) {
+        int end = busy.nextFree(start);
+        int next = busy.nextBusy(end);
+        // Gaps too short for the meeting are busy as far as it is concerned.
+        while (next < MINUTES && next - end < duration) {
+          end = busy.nextFree(next);
+          next = busy.nextBusy(end);
+        }
+
+        int from = (int) Math.max(start - duration + 1, 0);
+        int to = Math.min(end, latestStart + 1);
+        if (from < to) {
+          busyOptionals[from]++;
+          busyOptionals[to]--;
+        }
+        start = next;
+      }
+    }
+
+    for (int t = 1; t <= latestStart + 1; t++) {
+      busyOptionals[t] += busyOptionals[t - 1];
+    }
+  }
+
+  /**
+   * Writes every mandatory gap of at least {@code minimum} minutes and returns how many there are.
+   */
+  private int writeFree(int[] out, long minimum) {
+    int count = 0;
+    int start = mandatory.nextFree(0);
+    while (start < MINUTES) {
+      int end = mandatory.nextBusy(start);
+      if (end - start >= minimum) {
+        count = write(out, count, start, end);
+      }
+      start = mandatory.nextFree(end);
+    }
+    return count;
+  }
+
+  /**
+   * Writes slot number {@code count} if it fits and returns the new number of slots.
+   */
+  private static int write(int[] out, int count, int start, int end) {
+    if (2 * count + 1 < out.length) {
+      out[2 * count] = start;
+      out[2 * count + 1] = end;
+    }
+    return count + 1;
+  }
+}
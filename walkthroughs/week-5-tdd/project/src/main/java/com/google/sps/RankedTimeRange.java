@@ -0,0 +1,72 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A window of time in which a meeting can start, along with how many of the meeting's optional
+ * attendees are free for the whole meeting whenever it starts within that window.
+ */
+public final class RankedTimeRange {
+  private final TimeRange range;
+  private final int optionalAttendees;
+
+  /**
+   * Creates a new ranked range.
+   *
+   * @param range The time during which the meeting can take place. Must be non-null.
+   * @param optionalAttendees The number of optional attendees who can attend.
+   */
+  public RankedTimeRange(TimeRange range, int optionalAttendees) {
+    if (range == null) {
+      throw new IllegalArgumentException("range cannot be null");
+    }
+
+    this.range = range;
+    this.optionalAttendees = optionalAttendees;
+  }
+
+  /**
+   * Returns the time during which the meeting can take place.
+   */
+  public TimeRange getRange() {
+    return range;
+  }
+
+  /**
+   * Returns the number of optional attendees who can attend.
+   */
+  public int getOptionalAttendees() {
+    return optionalAttendees;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RankedTimeRange && equals(this, (RankedTimeRange) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return range.hashCode() ^ optionalAttendees;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s with %d optional attendees", range, optionalAttendees);
+  }
+
+  private static boolean equals(RankedTimeRange a, RankedTimeRange b) {
+    return a.range.equals(b.range) && a.optionalAttendees == b.optionalAttendees;
+  }
+}
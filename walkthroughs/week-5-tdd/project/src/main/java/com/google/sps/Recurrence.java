@@ -0,0 +1,195 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The days on which a recurring event takes place: every {@code interval} days, or on some days of
+ * the week every {@code interval} weeks, from a first day until an optional last day, skipping any
+ * exception days. A rule only describes days, so checking a day never builds the days before it.
+ * Rules are immutable; the {@code until} and {@code except} methods return changed copies.
+ */
+public final class Recurrence {
+  /**
+   * How often the rule repeats.
+   */
+  public enum Frequency {
+    DAILY,
+    WEEKLY
+  }
+
+  private final Frequency frequency;
+  private final int interval;
+  private final LocalDate first;
+  // The last day the rule can take place on, or null if it repeats forever.
+  private final LocalDate last;
+  private final Set<DayOfWeek> days;
+  private final Set<LocalDate> exceptions;
+
+  private Recurrence(Frequency frequency, int interval, LocalDate first, LocalDate last,
+      Set<DayOfWeek> days, Set<LocalDate> exceptions) {
+    this.frequency = frequency;
+    this.interval = interval;
+    this.first = first;
+    this.last = last;
+    this.days = days;
+    this.exceptions = exceptions;
+  }
+
+  /**
+   * Returns a rule that takes place on {@code first} and then every {@code interval} days.
+   */
+  public static Recurrence daily(LocalDate first, int interval) {
+    checkRule(first, interval);
+    return new Recurrence(Frequency.DAILY, interval, first, null,
+        EnumSet.allOf(DayOfWeek.class), Collections.<LocalDate>emptySet());
+  }
+
+  /**
+   * Returns a rule that takes place on each of {@code days} in the week of {@code first}, and then
+   * in every {@code interval}th week after it. Weeks start on Monday, and days before {@code
+   * first} are skipped.
+   */
+  public static Recurrence weekly(LocalDate first, int interval, Collection<DayOfWeek> days) {
+    checkRule(first, interval);
+    if (days == null || days.isEmpty()) {
+      throw new IllegalArgumentException("days cannot be null or empty");
+    }
+    return new Recurrence(Frequency.WEEKLY, interval, first, null, EnumSet.copyOf(days),
+        Collections.<LocalDate>emptySet());
+  }
+
+  /**
+   * Returns a rule that takes place every Monday through Friday from {@code first}.
+   */
+  public static Recurrence weekdays(LocalDate first) {
+    return weekly(first, 1, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+  }
+
+  /**
+   * Returns a copy that takes place for the last time no later than {@code last}.
+   */
+  public Recurrence until(LocalDate last) {
+    if (last == null || last.isBefore(first)) {
+      throw new IllegalArgumentException("last cannot be null or before the first day");
+    }
+    return new Recurrence(frequency, interval, first, last, days, exceptions);
+  }
+
+  /**
+   * Returns a copy that does not take place on {@code day}.
+   */
+  public Recurrence except(LocalDate day) {
+    if (day == null) {
+      throw new IllegalArgumentException("day cannot be null");
+    }
+    Set<LocalDate> changed = new HashSet<>(exceptions);
+    changed.add(day);
+    return new Recurrence(
+        frequency, interval, first, last, days, Collections.unmodifiableSet(changed));
+  }
+
+  /**
+   * Returns how often the rule repeats.
+   */
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  /**
+   * Returns how many days or weeks pass between repeats.
+   */
+  public int getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the first day the rule can take place on.
+   */
+  public LocalDate getFirst() {
+    return first;
+  }
+
+  /**
+   * Returns the last day the rule can take place on, or {@code null} if it repeats forever.
+   */
+  public LocalDate getLast() {
+    return last;
+  }
+
+  /**
+   * Returns the days of the rule's exceptions.
+   */
+  public Set<LocalDate> getExceptions() {
+    return exceptions;
+  }
+
+  /**
+   * Returns whether the rule takes place on {@code day}.
+   */
+  public boolean occursOn(LocalDate day) {
+    if (day.isBefore(first) || (last != null && day.isAfter(last))) {
+      return false;
+    }
+    if (!days.contains(day.getDayOfWeek()) || exceptions.contains(day)) {
+      return false;
+    }
+    switch (frequency) {
+      case DAILY:
+        return ChronoUnit.DAYS.between(first, day) % interval == 0;
+      case WEEKLY:
+        return ChronoUnit.WEEKS.between(mondayOf(first), mondayOf(day)) % interval == 0;
+      default:
+        throw new AssertionError(frequency);
+    }
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof Recurrence && equals(this, (Recurrence) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return first.hashCode() ^ (31 * interval + frequency.ordinal());
+  }
+
+  private static boolean equals(Recurrence a, Recurrence b) {
+    return a.frequency == b.frequency && a.interval == b.interval && a.first.equals(b.first)
+        && (a.last == null ? b.last == null : a.last.equals(b.last)) && a.days.equals(b.days)
+        && a.exceptions.equals(b.exceptions);
+  }
+
+  private static LocalDate mondayOf(LocalDate day) {
+    return day.minusDays(day.getDayOfWeek().getValue() - 1);
+  }
+
+  private static void checkRule(LocalDate first, int interval) {
+    if (first == null) {
+      throw new IllegalArgumentException("first cannot be null");
+    }
+    if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+  }
+}
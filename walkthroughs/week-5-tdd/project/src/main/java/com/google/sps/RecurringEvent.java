@@ -0,0 +1,190 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An event that takes place at the same time of day on every day of a {@link Recurrence}. One
+ * recurring event stands in for all of its occurrences; they are only worked out for the window a
+ * query looks at. Events are considered read-only.
+ */
+public final class RecurringEvent {
+  private final String title;
+  private final TimeRange when;
+  private final ZoneId zone;
+  private final Recurrence recurrence;
+  // Sorted IDs from the shared AttendeeDirectory, the same as in Event.
+  private final int[] attendees;
+
+  /**
+   * Creates a new recurring event.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time of day when each occurrence takes place. Must be non-null.
+   * @param zone The time zone {@code when} is given in. Must be non-null.
+   * @param recurrence The days on which the event takes place. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   */
+  public RecurringEvent(String title, TimeRange when, ZoneId zone, Recurrence recurrence,
+      Collection<String> attendees) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (when == null || zone == null) {
+      throw new IllegalArgumentException("when and zone cannot be null");
+    }
+
+    if (recurrence == null) {
+      throw new IllegalArgumentException("recurrence cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null. Use empty array instead.");
+    }
+
+    this.title = title;
+    this.when = when;
+    this.zone = zone;
+    this.recurrence = recurrence;
+    this.attendees = AttendeeDirectory.shared().intern(attendees);
+  }
+
+  /**
+   * Returns the human-readable name for this event.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the time of day when each occurrence takes place.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns the time zone the time of day is given in.
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Returns the days on which this event takes place.
+   */
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  /**
+   * Returns a read-only set of required attendees for this event.
+   */
+  public Set<String> getAttendees() {
+    return AttendeeDirectory.shared().asNames(attendees);
+  }
+
+  /**
+   * Returns the sorted IDs of this event's attendees. The array is shared and must not be changed.
+   */
+  int[] getAttendeeIds() {
+    return attendees;
+  }
+
+  /**
+   * Returns every occurrence that overlaps {@code window}, sorted by start time.
+   */
+  public List<EpochEvent> occurrences(EpochRange window) {
+    List<EpochEvent> occurrences = new ArrayList<>();
+    LocalDate last = lastDay(window);
+    for (LocalDate day = firstDay(window); !day.isAfter(last); day = day.plusDays(1)) {
+      if (recurrence.occursOn(day)) {
+        EpochRange range = EpochRange.onDay(when, day, zone);
+        if (range.overlaps(window)) {
+          occurrences.add(new EpochEvent(title, range, getAttendees()));
+        }
+      }
+    }
+    return occurrences;
+  }
+
+  /**
+   * Returns an upper bound on the number of occurrences that can overlap {@code window}.
+   */
+  int maxOccurrences(EpochRange window) {
+    return (int) Math.max(lastDay(window).toEpochDay() - firstDay(window).toEpochDay() + 1, 0);
+  }
+
+  /**
+   * Writes the start and end of every occurrence that overlaps {@code window} into {@code starts}
+   * and {@code ends} from index {@code count}, and returns the new count. No event is built per
+   * occurrence, so a sweep can take in a long-running series cheaply. Like {@link
+   * EpochRange#onDay}, each occurrence keeps its wall-clock times on days the clocks change.
+   */
+  int expand(EpochRange window, long[] starts, long[] ends, int count) {
+    LocalDate last = lastDay(window);
+    for (LocalDate day = firstDay(window); !day.isAfter(last); day = day.plusDays(1)) {
+      if (!recurrence.occursOn(day)) {
+        continue;
+      }
+      long start = EpochRange.toEpochMinutes(day, when.start(), zone);
+      long end = EpochRange.toEpochMinutes(day, when.end(), zone);
+      if (start < window.end() && window.start() < end && start < end) {
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int hashCode() {
+    return title.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RecurringEvent && equals(this, (RecurringEvent) other);
+  }
+
+  private static boolean equals(RecurringEvent a, RecurringEvent b) {
+    return a.title.equals(b.title) && a.when.equals(b.when) && a.zone.equals(b.zone)
+        && a.recurrence.equals(b.recurrence) && Arrays.equals(a.attendees, b.attendees);
+  }
+
+  /**
+   * Returns the first day that may hold an occurrence overlapping {@code window}. Zone offsets are
+   * at most a day, so starting a day early never misses one.
+   */
+  private LocalDate firstDay(EpochRange window) {
+    LocalDate day = window.startInstant().atZone(zone).toLocalDate().minusDays(1);
+    return day.isBefore(recurrence.getFirst()) ? recurrence.getFirst() : day;
+  }
+
+  private LocalDate lastDay(EpochRange window) {
+    LocalDate day = window.endInstant().atZone(zone).toLocalDate();
+    LocalDate last = recurrence.getLast();
+    return last != null && day.isAfter(last) ? last : day;
+  }
+}
@@ -0,0 +1,74 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What it takes to find room for a meeting that doesn't fit as asked: the fewest mandatory
+ * attendees to leave out, the times that then work, and the longest meeting every mandatory
+ * attendee could make instead.
+ */
+public final class Relaxation {
+  private final Set<String> dropped;
+  private final List<TimeRange> times;
+  private final long longestDuration;
+  private final boolean complete;
+
+  Relaxation(Set<String> dropped, List<TimeRange> times, long longestDuration, boolean complete) {
+    this.dropped = Collections.unmodifiableSet(dropped);
+    this.times = Collections.unmodifiableList(times);
+    this.longestDuration = longestDuration;
+    this.complete = complete;
+  }
+
+  /**
+   * Returns the mandatory attendees to leave out. This is empty if the meeting fits as asked.
+   */
+  public Set<String> getDropped() {
+    return dropped;
+  }
+
+  /**
+   * Returns the times that fit the meeting once {@link #getDropped()} are left out. This is only
+   * empty if the meeting is longer than a day.
+   */
+  public List<TimeRange> getTimes() {
+    return times;
+  }
+
+  /**
+   * Returns the longest meeting, in minutes, that every mandatory attendee can make.
+   */
+  public long getLongestDuration() {
+    return longestDuration;
+  }
+
+  /**
+   * Returns whether the search finished within its budget. If it did not, {@link #getDropped()}
+   * is the smallest set found in time, which may not be the smallest there is.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Drop %s for %s (longest for everyone: %d minutes%s)", dropped, times,
+        longestDuration, complete ? "" : ", incomplete");
+  }
+}
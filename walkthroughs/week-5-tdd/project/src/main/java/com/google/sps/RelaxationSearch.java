@@ -0,0 +1,138 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Branch-and-bound search for the fewest attendees to leave out of a meeting so that everyone left
+ * shares a free stretch of {@code fit} minutes. Each attendee's busy bitmap is built once, and
+ * every node of the search ORs one more of them into the busy time of the attendees kept so far.
+ *
+ * <p>Attendees are tried from the least busy up, keeping each one before leaving them out, so the
+ * first answer found is the greedy one. After that a branch is cut as soon as it can't beat the
+ * best answer: when the kept attendees no longer fit, or when enough of the attendees still to
+ * come don't fit alongside them on their own. The search stops early, keeping its best answer so
+ * far, once its deadline passes.
+ */
+final class RelaxationSearch {
+  private static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+
+  private final DayBitmap[] busy;
+  private final Integer[] order;
+  private final int fit;
+  private final long deadline;
+  private final DayBitmap scratch = new DayBitmap();
+
+  private final boolean[] drop;
+  private boolean[] best;
+  private int bestDropped;
+  private boolean complete = true;
+
+  /**
+   * Creates a search over the attendees busy during {@code busy}.
+   *
+   * @param busy The busy time of each attendee.
+   * @param fit The length of the meeting in minutes, at least 1 and at most a day.
+   * @param deadline The {@link System#nanoTime()} after which to stop searching.
+   */
+  RelaxationSearch(DayBitmap[] busy, int fit, long deadline) {
+    if (fit < 1 || fit > MINUTES) {
+      throw new IllegalArgumentException("fit must be within a day");
+    }
+
+    this.busy = busy;
+    this.fit = fit;
+    this.deadline = deadline;
+    this.drop = new boolean[busy.length];
+    // Leaving everyone out always works, so that is the answer to beat.
+    this.best = new boolean[busy.length];
+    Arrays.fill(best, true);
+    this.bestDropped = busy.length;
+
+    final int[] busyMinutes = new int[busy.length];
+    order = new Integer[busy.length];
+    for (int i = 0; i < busy.length; i++) {
+      busyMinutes[i] = busy[i].countBusy(0, MINUTES);
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Integer.compare(busyMinutes[a], busyMinutes[b]);
+      }
+    });
+  }
+
+  /**
+   * Runs the search and returns, for each attendee in the order given, whether to leave them out.
+   */
+  boolean[] run() {
+    search(0, new DayBitmap(), 0);
+    return best;
+  }
+
+  /**
+   * Returns whether the last {@link #run()} finished before the deadline, in which case its answer
+   * leaves out as few attendees as possible.
+   */
+  boolean isComplete() {
+    return complete;
+  }
+
+  private void search(int next, DayBitmap kept, int dropped) {
+    if (!complete || dropped >= bestDropped) {
+      return;
+    }
+    if (next == order.length) {
+      best = drop.clone();
+      bestDropped = dropped;
+      return;
+    }
+    if (System.nanoTime() - deadline > 0) {
+      complete = false;
+      return;
+    }
+
+    // Every attendee still to come who can't fit alongside the kept ones has to be left out too.
+    int mustDrop = 0;
+    for (int i = next; i < order.length; i++) {
+      if (!fitsWith(kept, busy[order[i]])) {
+        mustDrop++;
+      }
+    }
+    if (dropped + mustDrop >= bestDropped) {
+      return;
+    }
+
+    int attendee = order[next];
+    if (fitsWith(kept, busy[attendee])) {
+      DayBitmap keep = new DayBitmap(kept);
+      keep.or(busy[attendee]);
+      search(next + 1, keep, dropped);
+    }
+    drop[attendee] = true;
+    search(next + 1, kept, dropped + 1);
+    drop[attendee] = false;
+  }
+
+  private boolean fitsWith(DayBitmap kept, DayBitmap attendee) {
+    scratch.clear();
+    scratch.or(kept);
+    scratch.or(attendee);
+    return scratch.longestFree() >= fit;
+  }
+}
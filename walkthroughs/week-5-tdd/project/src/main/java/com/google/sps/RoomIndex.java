@@ -0,0 +1,79 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The rooms that can be booked, sorted by capacity so that the rooms big enough for a meeting are
+ * found with a binary search. An index is read-only once built.
+ */
+public final class RoomIndex {
+  /**
+   * A comparator for sorting rooms by capacity in ascending order, and then by name.
+   */
+  public static final Comparator<Room> SMALLEST_FIRST = new Comparator<Room>() {
+    @Override
+    public int compare(Room a, Room b) {
+      int byCapacity = Integer.compare(a.getCapacity(), b.getCapacity());
+      return byCapacity != 0 ? byCapacity : a.getName().compareTo(b.getName());
+    }
+  };
+
+  private final List<Room> rooms;
+
+  /**
+   * Creates a new index.
+   *
+   * @param rooms The rooms to index. Must be non-null.
+   */
+  public RoomIndex(Collection<Room> rooms) {
+    if (rooms == null) {
+      throw new IllegalArgumentException("rooms cannot be null");
+    }
+
+    List<Room> sorted = new ArrayList<>(rooms);
+    Collections.sort(sorted, SMALLEST_FIRST);
+    this.rooms = Collections.unmodifiableList(sorted);
+  }
+
+  /**
+   * Returns every room, smallest first.
+   */
+  public List<Room> getRooms() {
+    return rooms;
+  }
+
+  /**
+   * Returns the rooms that hold at least {@code capacity} people, smallest first.
+   */
+  public List<Room> withCapacity(int capacity) {
+    int low = 0;
+    int high = rooms.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (rooms.get(middle).getCapacity() < capacity) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return rooms.subList(low, rooms.size());
+  }
+}
@@ -0,0 +1,76 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A window of time in which a meeting can start, paired with a room that is free for the whole
+ * meeting whenever it starts within that window.
+ */
+public final class RoomSlot {
+  private final TimeRange range;
+  private final Room room;
+
+  /**
+   * Creates a new slot.
+   *
+   * @param range The time during which the meeting can take place. Must be non-null.
+   * @param room The room the meeting can take place in. Must be non-null.
+   */
+  public RoomSlot(TimeRange range, Room room) {
+    if (range == null) {
+      throw new IllegalArgumentException("range cannot be null");
+    }
+
+    if (room == null) {
+      throw new IllegalArgumentException("room cannot be null");
+    }
+
+    this.range = range;
+    this.room = room;
+  }
+
+  /**
+   * Returns the time during which the meeting can take place.
+   */
+  public TimeRange getRange() {
+    return range;
+  }
+
+  /**
+   * Returns the room the meeting can take place in.
+   */
+  public Room getRoom() {
+    return room;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RoomSlot && equals(this, (RoomSlot) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return range.hashCode() ^ room.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s in %s", range, room);
+  }
+
+  private static boolean equals(RoomSlot a, RoomSlot b) {
+    return a.range.equals(b.range) && a.room.equals(b.room);
+  }
+}
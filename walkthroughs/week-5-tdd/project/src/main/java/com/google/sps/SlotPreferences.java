@@ -0,0 +1,151 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * How to score concrete meeting slots when only the best few are wanted. Every preference adds a
+ * penalty to a slot, and the slots with the lowest total win:
+ *
+ * <ul>
+ *   <li>{@code earliestWeight} for every minute the slot starts after the start of the day.
+ *   <li>{@code targetWeight} for every minute the slot starts away from the target time.
+ *   <li>{@code optionalWeight} for every optional attendee who can't make the slot.
+ *   <li>{@code bufferWeight} for every minute the slot falls short of a free buffer before and
+ *       after it.
+ * </ul>
+ *
+ * <p>Slots start on multiples of {@code step} minutes, at the edges of free gaps, and at the target
+ * time. Preferences are immutable; the {@code with} methods return changed copies.
+ */
+public final class SlotPreferences {
+  /**
+   * Prefers slots that every optional attendee can make, and then the earliest ones.
+   */
+  public static final SlotPreferences DEFAULT =
+      new SlotPreferences(15, 1, -1, 0, TimeRange.WHOLE_DAY.duration(), 0, 0);
+
+  private final int step;
+  private final long earliestWeight;
+  private final int target;
+  private final long targetWeight;
+  private final long optionalWeight;
+  private final int buffer;
+  private final long bufferWeight;
+
+  private SlotPreferences(int step, long earliestWeight, int target, long targetWeight,
+      long optionalWeight, int buffer, long bufferWeight) {
+    this.step = step;
+    this.earliestWeight = earliestWeight;
+    this.target = target;
+    this.targetWeight = targetWeight;
+    this.optionalWeight = optionalWeight;
+    this.buffer = buffer;
+    this.bufferWeight = bufferWeight;
+  }
+
+  /**
+   * Returns a copy that lets slots start on every multiple of {@code step} minutes.
+   */
+  public SlotPreferences withStep(int step) {
+    if (step <= 0) {
+      throw new IllegalArgumentException("step must be positive");
+    }
+    return new SlotPreferences(
+        step, earliestWeight, target, targetWeight, optionalWeight, buffer, bufferWeight);
+  }
+
+  /**
+   * Returns a copy that charges {@code weight} for every minute a slot starts after the start of
+   * the day.
+   */
+  public SlotPreferences withEarliestWeight(long weight) {
+    checkWeight(weight);
+    return new SlotPreferences(
+        step, weight, target, targetWeight, optionalWeight, buffer, bufferWeight);
+  }
+
+  /**
+   * Returns a copy that charges {@code weight} for every minute a slot starts away from {@code
+   * target}, which is a minute of the day.
+   */
+  public SlotPreferences withTarget(int target, long weight) {
+    if (target < TimeRange.START_OF_DAY || target > TimeRange.END_OF_DAY) {
+      throw new IllegalArgumentException("target must be within the day");
+    }
+    checkWeight(weight);
+    return new SlotPreferences(
+        step, earliestWeight, target, weight, optionalWeight, buffer, bufferWeight);
+  }
+
+  /**
+   * Returns a copy that charges {@code weight} for every optional attendee who can't make a slot.
+   */
+  public SlotPreferences withOptionalWeight(long weight) {
+    checkWeight(weight);
+    return new SlotPreferences(
+        step, earliestWeight, target, targetWeight, weight, buffer, bufferWeight);
+  }
+
+  /**
+   * Returns a copy that charges {@code weight} for every minute less than {@code minutes} that a
+   * slot leaves free before it, and the same after it. The start and end of the day count as free.
+   */
+  public SlotPreferences withBuffer(int minutes, long weight) {
+    if (minutes < 0) {
+      throw new IllegalArgumentException("minutes cannot be negative");
+    }
+    checkWeight(weight);
+    return new SlotPreferences(
+        step, earliestWeight, target, targetWeight, optionalWeight, minutes, weight);
+  }
+
+  /**
+   * Returns the minutes slots start on multiples of.
+   */
+  public int getStep() {
+    return step;
+  }
+
+  /**
+   * Returns the target start time, or -1 if there is none.
+   */
+  public int getTarget() {
+    return target;
+  }
+
+  /**
+   * Returns the penalty of a slot starting at {@code start} inside the free gap {@code gap}, when
+   * {@code busyOptionals} of the optional attendees can't make it. Lower is better.
+   */
+  long score(int start, long duration, TimeRange gap, int busyOptionals) {
+    long score = earliestWeight * start + optionalWeight * busyOptionals;
+    if (target >= 0) {
+      score += targetWeight * Math.abs(start - target);
+    }
+    if (bufferWeight > 0) {
+      long before = gap.start() == TimeRange.START_OF_DAY ? buffer : start - gap.start();
+      long after =
+          gap.end() == TimeRange.WHOLE_DAY.end() ? buffer : gap.end() - (start + duration);
+      score += bufferWeight * (Math.max(buffer - before, 0) + Math.max(buffer - after, 0));
+    }
+    return score;
+  }
+
+  private static void checkWeight(long weight) {
+    if (weight < 0) {
+      throw new IllegalArgumentException("weight cannot be negative");
+    }
+  }
+}
@@ -0,0 +1,137 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sweep-line over the boundaries of a set of busy ranges. The starts and the ends are walked as two
+ * independently sorted arrays while a counter tracks how many ranges are open, so the merged busy
+ * set and the free gaps between its pieces both come out of a single pass.
+ */
+final class TimeSweep {
+  private TimeSweep() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns every gap in the day that is free of all busy ranges and lasts at least {@code
+   * duration} minutes, in ascending order.
+   *
+   * @param starts the start of each busy range, sorted ascending. Only the first {@code count}
+   *     values are read.
+   * @param ends the end of each busy range, sorted ascending. Only the first {@code count} values
+   *     are read.
+   * @param count the number of busy ranges
+   * @param duration the minimum length of a gap in minutes
+   */
+  static List<TimeRange> freeRanges(int[] starts, int[] ends, int count, long duration) {
+    int[] merged = new int[2 * count];
+    int ranges = mergeBusy(starts, ends, count, merged);
+
+    List<TimeRange> free = new ArrayList<>();
+    // A gap has to be at least a minute long to be worth reporting, even for a zero-length meeting.
+    long minimum = Math.max(duration, 1);
+    int dayStart = TimeRange.WHOLE_DAY.start();
+    int dayEnd = TimeRange.WHOLE_DAY.end();
+    int freeSince = dayStart;
+    for (int i = 0; i < ranges; i++) {
+      addGap(free, freeSince, Math.min(merged[2 * i], dayEnd), minimum);
+      freeSince = Math.max(merged[2 * i + 1], dayStart);
+    }
+    addGap(free, freeSince, dayEnd, minimum);
+    return free;
+  }
+
+  /**
+   * Returns every gap within {@code within} that is free of all busy ranges and lasts at least
+   * {@code duration} minutes, in ascending order. This is the same sweep as {@link #mergeBusy},
+   * over absolute minutes instead of minutes of the day, reading the gaps off as it goes.
+   */
+  static List<EpochRange> freeRanges(
+      long[] starts, long[] ends, int count, EpochRange within, long duration) {
+    List<EpochRange> free = new ArrayList<>();
+    long minimum = Math.max(duration, 1);
+
+    long freeSince = within.start();
+    int open = 0;
+    int i = 0;
+    int j = 0;
+    while (i < count) {
+      if (starts[i] <= ends[j]) {
+        if (open++ == 0) {
+          addGap(free, freeSince, Math.min(starts[i], within.end()), minimum);
+        }
+        i++;
+      } else {
+        if (--open == 0) {
+          freeSince = Math.max(ends[j], within.start());
+        }
+        j++;
+      }
+    }
+    if (count > 0) {
+      freeSince = Math.max(ends[count - 1], within.start());
+    }
+    addGap(free, freeSince, within.end(), minimum);
+    return free;
+  }
+
+  /**
+   * Writes the merged busy set into {@code out} as {@code [start, end)} pairs and returns the
+   * number of merged ranges. {@code out} must hold at least {@code 2 * count} values. This is the
+   * sweep the free ranges of a day are read off, and the busy time the cache keeps.
+   */
+  static int mergeBusy(int[] starts, int[] ends, int count, int[] out) {
+    int merged = 0;
+    int open = 0;
+    int i = 0;
+    int j = 0;
+    while (i < count) {
+      // Starts win ties so that back-to-back ranges are merged instead of leaving an empty gap.
+      if (starts[i] <= ends[j]) {
+        if (open++ == 0) {
+          out[2 * merged] = starts[i];
+        }
+        i++;
+      } else {
+        if (--open == 0) {
+          out[2 * merged + 1] = ends[j];
+          merged++;
+        }
+        j++;
+      }
+    }
+    // Every start has been seen, so the last end closes the final busy range.
+    if (count > 0) {
+      out[2 * merged + 1] = ends[count - 1];
+      merged++;
+    }
+    return merged;
+  }
+
+  private static void addGap(List<TimeRange> free, int start, int end, long minimum) {
+    if (end - start >= minimum) {
+      free.add(TimeRange.fromStartEnd(start, end, false));
+    }
+  }
+
+  private static void addGap(List<EpochRange> free, long start, long end, long minimum) {
+    if (end - start >= minimum) {
+      free.add(EpochRange.fromStartEnd(start, end));
+    }
+  }
+}
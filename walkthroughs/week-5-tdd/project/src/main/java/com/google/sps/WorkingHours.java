@@ -0,0 +1,106 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The hours of the week when meetings may be booked, in the wall-clock time of a time zone. If
+ * {@code end} is not after {@code start}, the window runs past midnight into the next day.
+ */
+public final class WorkingHours {
+  private final ZoneId zone;
+  private final LocalTime start;
+  private final LocalTime end;
+  private final Set<DayOfWeek> days;
+
+  /**
+   * Creates new working hours.
+   *
+   * @param zone The time zone the hours are given in. Must be non-null.
+   * @param start The time of day working hours begin. Must be non-null.
+   * @param end The time of day working hours finish. Must be non-null.
+   * @param days The days of the week on which working hours begin. Must be non-null.
+   */
+  public WorkingHours(ZoneId zone, LocalTime start, LocalTime end, Collection<DayOfWeek> days) {
+    if (zone == null) {
+      throw new IllegalArgumentException("zone cannot be null");
+    }
+
+    if (start == null || end == null) {
+      throw new IllegalArgumentException("start and end cannot be null");
+    }
+
+    if (days == null) {
+      throw new IllegalArgumentException("days cannot be null. Use empty array instead.");
+    }
+
+    this.zone = zone;
+    this.start = start;
+    this.end = end;
+    this.days = days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+  }
+
+  /**
+   * Returns working hours from {@code start} to {@code end} on Monday through Friday.
+   */
+  public static WorkingHours weekdays(ZoneId zone, LocalTime start, LocalTime end) {
+    return new WorkingHours(zone, start, end, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+  }
+
+  /**
+   * Returns the time zone the hours are given in.
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Returns the working windows that overlap {@code horizon}, clipped to it and sorted by start
+   * time. Each day is resolved in the time zone separately, so the windows follow any clock
+   * changes within the horizon.
+   */
+  public List<EpochRange> windows(EpochRange horizon) {
+    List<EpochRange> windows = new ArrayList<>();
+    // Start a day early so that a window running past midnight into the horizon is included.
+    LocalDate day = horizon.startInstant().atZone(zone).toLocalDate().minusDays(1);
+    LocalDate last = horizon.endInstant().atZone(zone).toLocalDate();
+    for (; !day.isAfter(last); day = day.plusDays(1)) {
+      if (!days.contains(day.getDayOfWeek())) {
+        continue;
+      }
+
+      ZonedDateTime from = day.atTime(start).atZone(zone);
+      LocalDate endDay = end.isAfter(start) ? day : day.plusDays(1);
+      ZonedDateTime to = endDay.atTime(end).atZone(zone);
+
+      long windowStart = Math.max(EpochRange.toEpochMinutes(from.toInstant()), horizon.start());
+      long windowEnd = Math.min(EpochRange.toEpochMinutes(to.toInstant()), horizon.end());
+      if (windowStart < windowEnd) {
+        windows.add(EpochRange.fromStartEnd(windowStart, windowEnd));
+      }
+    }
+    return windows;
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.EventIndex;
+import com.google.sps.EventStore;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers many meeting requests in one call. The requests are answered in parallel against the same
+ * snapshot of the events, and the answers are written back as a JSON array in the order the
+ * requests were given, each one as soon as it and every answer before it are ready.
+ */
+@WebServlet("/query/batch")
+public class BatchQueryServlet extends HttpServlet {
+  // Protects the pool from a single caller queueing up an unbounded amount of work.
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private final FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
+  private EventStore store;
+  private ExecutorService pool;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+    pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Override
+  public void destroy() {
+    pool.shutdownNow();
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response)
+      throws IOException, ServletException {
+    List<MeetingRequest> meetingRequests;
+    try {
+      meetingRequests = new JsonInput(request.getReader(), JsonInput.MAX_BODY_LENGTH)
+          .readMeetingRequests(MAX_BATCH_SIZE);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    // Every request in the batch reads the same snapshot, even if the events change meanwhile.
+    EventIndex index = store.index();
+    List<Future<Collection<TimeRange>>> answers = new ArrayList<>();
+    for (MeetingRequest meetingRequest : meetingRequests) {
+      answers.add(pool.submit(() -> findMeetingQuery.query(index, meetingRequest)));
+    }
+
+    boolean compact = JsonOutput.isCompact(request);
+    JsonWriter writer = JsonOutput.open(response);
+    writer.beginArray();
+    try {
+      for (Future<Collection<TimeRange>> answer : answers) {
+        JsonOutput.writeRanges(writer, answer.get(), compact);
+        writer.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServletException(e);
+    } catch (ExecutionException e) {
+      throw new ServletException(e.getCause());
+    } finally {
+      for (Future<Collection<TimeRange>> answer : answers) {
+        answer.cancel(true);
+      }
+    }
+    writer.endArray();
+    writer.flush();
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Imports many events at once. The body is a JSON array of events in the same shape {@code
+ * /events} takes, and the events are added as one change. The answer holds the id of the first
+ * event and how many there were; the others have the ids that follow, in the order they were sent.
+ */
+@WebServlet("/events/bulk")
+public class BulkEventsServlet extends HttpServlet {
+  // Bounds the memory a single import can take up before anything is checked.
+  private static final long MAX_BODY_LENGTH = 64L << 20;
+  private static final int MAX_EVENTS = 200000;
+
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (request.getContentLengthLong() > MAX_BODY_LENGTH) {
+      response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+      return;
+    }
+
+    List<Event> events;
+    try {
+      events = new JsonInput(request.getReader(), MAX_BODY_LENGTH).readEvents(MAX_EVENTS);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    long firstId = store.addAll(events);
+
+    JsonWriter writer = JsonOutput.open(response);
+    writer.beginObject();
+    writer.name("firstId").value(firstId);
+    writer.name("count").value(events.size());
+    writer.endObject();
+    writer.flush();
+  }
+}
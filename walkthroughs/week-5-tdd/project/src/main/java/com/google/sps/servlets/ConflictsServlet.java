@@ -0,0 +1,65 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.EventStore;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Checks whether a group of people is free at a given time. For example, {@code
+ * /conflicts?start=600&end=630&attendee=Ava&attendee=Noah} lists the events that Ava or Noah have
+ * between 10:00 and 10:30.
+ */
+@WebServlet("/conflicts")
+public class ConflictsServlet extends HttpServlet {
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    TimeRange range = RangeParameters.parse(request);
+    String[] attendees = request.getParameterValues("attendee");
+    if (range == null || attendees == null) {
+      response.sendError(
+          HttpServletResponse.SC_BAD_REQUEST, "Expected a start, an end and some attendees.");
+      return;
+    }
+
+    EventIndex index = store.index();
+    List<Event> conflicts = index.getConflicts(Arrays.asList(attendees), range);
+
+    JsonWriter writer = JsonOutput.open(response);
+    writer.beginObject();
+    writer.name("busy").value(!conflicts.isEmpty());
+    writer.name("conflicts");
+    JsonOutput.writeEvents(writer, conflicts, JsonOutput.isCompact(request));
+    writer.endObject();
+    writer.flush();
+  }
+}
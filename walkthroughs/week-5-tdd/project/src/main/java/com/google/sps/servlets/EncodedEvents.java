@@ -0,0 +1,129 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.EventStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Every event of one snapshot, encoded once in one of the JSON forms of {@link JsonOutput}, both as
+ * is and gzipped. Each of the two encodings has its own strong entity tag, made of the store's
+ * generation, the snapshot version and the form, so a client can check whether its copy is still
+ * current without downloading the events again.
+ */
+final class EncodedEvents {
+  private final long version;
+  private final byte[] plain;
+  private final byte[] gzipped;
+  private final String plainTag;
+  private final String gzipTag;
+
+  private EncodedEvents(long version, byte[] plain, byte[] gzipped, String tag) {
+    this.version = version;
+    this.plain = plain;
+    this.gzipped = gzipped;
+    this.plainTag = "\"" + tag + "\"";
+    this.gzipTag = "\"" + tag + "-gzip\"";
+  }
+
+  /**
+   * Encodes the events of {@code snapshot}.
+   *
+   * @param snapshot The events to encode.
+   * @param compact Whether to use the compact form rather than the object form.
+   * @param generation Tells this run of the store apart from earlier ones, whose versions started
+   *     from 0 too.
+   */
+  static EncodedEvents encode(EventStore.Snapshot snapshot, boolean compact, String generation)
+      throws IOException {
+    ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    JsonWriter writer = new JsonWriter(new OutputStreamWriter(plain, StandardCharsets.UTF_8));
+    JsonOutput.writeEvents(writer, snapshot.getIndex().getEvents(), compact);
+    writer.close();
+
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+      plain.writeTo(gzip);
+    }
+
+    String tag = generation + "-" + snapshot.getVersion() + (compact ? "-compact" : "-object");
+    return new EncodedEvents(
+        snapshot.getVersion(), plain.toByteArray(), gzipped.toByteArray(), tag);
+  }
+
+  /**
+   * Returns the version of the snapshot that was encoded.
+   */
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the encoded events, gzipped if {@code gzip} is set. The array must not be changed.
+   */
+  byte[] getBytes(boolean gzip) {
+    return gzip ? gzipped : plain;
+  }
+
+  /**
+   * Returns the strong entity tag of the encoding {@link #getBytes(boolean)} returns.
+   */
+  String getETag(boolean gzip) {
+    return gzip ? gzipTag : plainTag;
+  }
+
+  /**
+   * Returns whether an {@code If-None-Match} header of {@code ifNoneMatch}, which may be {@code
+   * null}, lists {@code etag}. As the header calls for, weak tags match their strong equivalents.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether an {@code Accept-Encoding} header of {@code acceptEncoding}, which may be
+   * {@code null}, allows gzip.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      if (parts[0].trim().equalsIgnoreCase("gzip")) {
+        // "gzip;q=0" means the client can't take it.
+        return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,47 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.EventStore;
+import com.google.sps.Events;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Creates the {@link EventStore} that every servlet shares, seeded with the sample events.
+ */
+@WebListener
+public class EventStoreListener implements ServletContextListener {
+  private static final String ATTRIBUTE = EventStore.class.getName();
+
+  @Override
+  public void contextInitialized(ServletContextEvent event) {
+    event.getServletContext().setAttribute(ATTRIBUTE, new EventStore(Events.all()));
+  }
+
+  @Override
+  public void contextDestroyed(ServletContextEvent event) {
+    event.getServletContext().removeAttribute(ATTRIBUTE);
+  }
+
+  /**
+   * Returns the store shared by every servlet in {@code context}.
+   */
+  static EventStore getStore(ServletContext context) {
+    return (EventStore) context.getAttribute(ATTRIBUTE);
+  }
+}
@@ -0,0 +1,109 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adds, updates and removes events. A new event is POSTed as JSON and its id is sent back; an
+ * existing event is replaced with a PUT or removed with a DELETE to {@code /events?id=<id>}.
+ */
+@WebServlet("/events")
+public class EventsServlet extends HttpServlet {
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Event event;
+    try {
+      event = readEvent(request);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    long id = store.add(event);
+
+    JsonWriter writer = JsonOutput.open(response);
+    writer.beginObject();
+    writer.name("id").value(id);
+    writer.endObject();
+    writer.flush();
+  }
+
+  @Override
+  public void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Long id = parseId(request);
+    if (id == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected an id.");
+      return;
+    }
+
+    Event event;
+    try {
+      event = readEvent(request);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    if (!store.update(id, event)) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+  }
+
+  @Override
+  public void doDelete(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    Long id = parseId(request);
+    if (id == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected an id.");
+      return;
+    }
+
+    if (!store.remove(id)) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+  }
+
+  private static Long parseId(HttpServletRequest request) {
+    try {
+      return Long.parseLong(request.getParameter("id"));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the event in the body of {@code request}.
+   *
+   * @throws IllegalArgumentException if the body isn't a valid event
+   */
+  private static Event readEvent(HttpServletRequest request) throws IOException {
+    return new JsonInput(request.getReader(), JsonInput.MAX_BODY_LENGTH).readEvent();
+  }
+}
@@ -14,23 +14,98 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
-import com.google.gson.Gson;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.TimeRange;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+/**
+ * Returns the events, or only those overlapping a range. The whole list is what dashboards poll
+ * for, so it is encoded once per version of the store, in each JSON form and gzipped, and served
+ * with an {@code ETag}. A client whose {@code If-None-Match} names the current tag gets an empty
+ * 304 instead.
+ */
 @WebServlet("/get-events")
 public class GetEventsServlet extends HttpServlet {
+  private static final int OBJECT_FORM = 0;
+  private static final int COMPACT_FORM = 1;
+
+  // Versions start from 0 again when the server restarts, so the tags also carry when it started.
+  private final String generation = Long.toString(System.currentTimeMillis(), 36);
+  // The latest encoding of the whole list in each form. Readers never lock; only a rebuild does.
+  private final AtomicReferenceArray<EncodedEvents> encoded = new AtomicReferenceArray<>(2);
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+  }
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
-    String jsonResponse = gson.toJson(Events.events);
+    boolean compact = JsonOutput.isCompact(request);
+    // A range narrows the answer down to the events that overlap it.
+    if (RangeParameters.isPresent(request)) {
+      TimeRange range = RangeParameters.parse(request);
+      if (range == null) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected a start and an end.");
+        return;
+      }
+      List<Event> events = store.index().getEvents(range);
 
-    // Send the JSON back as the response
+      // Stream the events out one at a time, since there can be tens of thousands of them.
+      JsonWriter writer = JsonOutput.open(response);
+      JsonOutput.writeEvents(writer, events, compact);
+      writer.flush();
+      return;
+    }
+
+    EncodedEvents events = encoded(store.current(), compact ? COMPACT_FORM : OBJECT_FORM);
+    boolean gzip = EncodedEvents.acceptsGzip(request.getHeader("Accept-Encoding"));
+    String etag = events.getETag(gzip);
+    response.setHeader("ETag", etag);
+    response.setHeader("Vary", "Accept-Encoding");
+    // Clients may keep a copy but have to check that it is still current before using it.
+    response.setHeader("Cache-Control", "no-cache");
+    if (EncodedEvents.matches(request.getHeader("If-None-Match"), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    byte[] body = events.getBytes(gzip);
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    if (gzip) {
+      response.setHeader("Content-Encoding", "gzip");
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  /**
+   * Returns the encoding of {@code snapshot} in {@code form}, encoding it first if the store has
+   * changed since the last one.
+   */
+  private EncodedEvents encoded(EventStore.Snapshot snapshot, int form) throws IOException {
+    EncodedEvents cached = encoded.get(form);
+    if (cached != null && cached.getVersion() >= snapshot.getVersion()) {
+      return cached;
+    }
+    // Only one thread encodes a new version; the others wait for it rather than repeat the work.
+    synchronized (encoded) {
+      cached = encoded.get(form);
+      if (cached == null || cached.getVersion() < snapshot.getVersion()) {
+        cached = EncodedEvents.encode(snapshot, form == COMPACT_FORM, generation);
+        encoded.set(form, cached);
+      }
+      return cached;
+    }
   }
 }
@@ -0,0 +1,275 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads meeting requests and events token by token from a request body, without going through
+ * Gson's reflection or building a tree of the whole document first. The names of each request or
+ * event are gathered into a list and handed to its constructor, which interns or looks them up
+ * once. Anything unexpected is skipped.
+ *
+ * <p>Every body is read through a limit on its length, and lists are capped as they are read, so a
+ * huge or malicious upload is turned away after reading at most the limit rather than after
+ * buffering all of it. Input that is malformed or over a limit is reported with an {@link
+ * IllegalArgumentException}; other {@link IOException}s come from the connection itself.
+ */
+final class JsonInput {
+  /** The longest body accepted, in characters. */
+  static final long MAX_BODY_LENGTH = 16L << 20;
+
+  /** The most attendees a single meeting request or event may have. */
+  static final int MAX_ATTENDEES = 1000;
+
+  private final JsonReader reader;
+
+  /**
+   * Creates an input over {@code body}, which may be at most {@code maxLength} characters long.
+   */
+  JsonInput(Reader body, long maxLength) {
+    this.reader = new JsonReader(new LimitedReader(body, maxLength));
+  }
+
+  /**
+   * Reads a single meeting request, shaped like the {@code MeetingRequest} in script.js.
+   */
+  MeetingRequest readMeetingRequest() throws IOException {
+    try {
+      return meetingRequest();
+    } catch (MalformedJsonException | LimitExceededException | IllegalStateException
+        | NumberFormatException e) {
+      throw new IllegalArgumentException("Expected a meeting request.", e);
+    }
+  }
+
+  /**
+   * Reads an array of at most {@code max} meeting requests.
+   */
+  List<MeetingRequest> readMeetingRequests(int max) throws IOException {
+    try {
+      List<MeetingRequest> requests = new ArrayList<>();
+      reader.beginArray();
+      while (reader.hasNext()) {
+        if (requests.size() == max) {
+          throw new IllegalArgumentException("Expected at most " + max + " requests.");
+        }
+        requests.add(meetingRequest());
+      }
+      reader.endArray();
+      return requests;
+    } catch (MalformedJsonException | LimitExceededException | IllegalStateException
+        | NumberFormatException e) {
+      throw new IllegalArgumentException("Expected an array of meeting requests.", e);
+    }
+  }
+
+  /**
+   * Reads a single event, shaped like the events {@code /get-events} sends.
+   */
+  Event readEvent() throws IOException {
+    try {
+      return event();
+    } catch (MalformedJsonException | LimitExceededException | IllegalStateException
+        | NumberFormatException e) {
+      throw new IllegalArgumentException("Expected an event.", e);
+    }
+  }
+
+  /**
+   * Reads an array of at most {@code max} events.
+   */
+  List<Event> readEvents(int max) throws IOException {
+    try {
+      List<Event> events = new ArrayList<>();
+      reader.beginArray();
+      while (reader.hasNext()) {
+        if (events.size() == max) {
+          throw new IllegalArgumentException("Expected at most " + max + " events.");
+        }
+        events.add(event());
+      }
+      reader.endArray();
+      return events;
+    } catch (MalformedJsonException | LimitExceededException | IllegalStateException
+        | NumberFormatException e) {
+      throw new IllegalArgumentException("Expected an array of events.", e);
+    }
+  }
+
+  private MeetingRequest meetingRequest() throws IOException {
+    List<String> attendees = new ArrayList<>();
+    List<String> optionalAttendees = new ArrayList<>();
+    long duration = 0;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "attendees":
+          names(attendees);
+          break;
+        case "optional_attendees":
+          names(optionalAttendees);
+          break;
+        case "duration":
+          duration = reader.nextLong();
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    // A meeting longer than a day is still a fair question; it just fits nowhere.
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Expected a positive duration.");
+    }
+    MeetingRequest request = new MeetingRequest(attendees, duration);
+    for (String optional : optionalAttendees) {
+      request.addOptionalAttendee(optional);
+    }
+    return request;
+  }
+
+  private Event event() throws IOException {
+    String title = null;
+    TimeRange when = null;
+    List<String> attendees = new ArrayList<>();
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "title":
+          title = reader.nextString();
+          break;
+        case "when":
+          when = timeRange();
+          break;
+        case "attendees":
+          names(attendees);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (when == null) {
+      throw new IllegalArgumentException("Expected an event with a valid time.");
+    }
+    return new Event(title, when, attendees);
+  }
+
+  /**
+   * Reads a range that lies within the day. The end is never computed, so a huge start or duration
+   * can't overflow and wrap back into the day.
+   */
+  private TimeRange timeRange() throws IOException {
+    long start = 0;
+    long duration = 0;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "start":
+          start = reader.nextLong();
+          break;
+        case "duration":
+          duration = reader.nextLong();
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    long endOfDay = TimeRange.END_OF_DAY + 1;
+    if (start < TimeRange.START_OF_DAY || start > endOfDay || duration < 0
+        || duration > endOfDay - start) {
+      throw new IllegalArgumentException("Expected a time within the day.");
+    }
+    return TimeRange.fromStartDuration((int) start, (int) duration);
+  }
+
+  private void names(List<String> names) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return;
+    }
+    reader.beginArray();
+    while (reader.hasNext()) {
+      if (names.size() == MAX_ATTENDEES) {
+        throw new IllegalArgumentException("Expected at most " + MAX_ATTENDEES + " attendees.");
+      }
+      names.add(reader.nextString());
+    }
+    reader.endArray();
+  }
+
+  /**
+   * Thrown by {@link LimitedReader} once the body is longer than allowed.
+   */
+  private static final class LimitExceededException extends IOException {
+    LimitExceededException() {
+      super("The body is too long.");
+    }
+  }
+
+  /**
+   * A reader that fails once more than a given number of characters have been read through it.
+   */
+  private static final class LimitedReader extends FilterReader {
+    private long remaining;
+
+    LimitedReader(Reader in, long maxLength) {
+      super(in);
+      this.remaining = maxLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int c = super.read();
+      if (c >= 0) {
+        count(1);
+      }
+      return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        count(read);
+      }
+      return read;
+    }
+
+    private void count(int read) throws LimitExceededException {
+      remaining -= read;
+      if (remaining < 0) {
+        throw new LimitExceededException();
+      }
+    }
+  }
+}
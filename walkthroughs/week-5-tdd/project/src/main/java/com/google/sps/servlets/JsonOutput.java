@@ -0,0 +1,144 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.Relaxation;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.Collection;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Writes answers straight to the response as they are encoded, rather than building the whole JSON
+ * string first. The only buffer involved is the response's own, which the container reuses.
+ *
+ * <p>Every value has two forms. The object form is what script.js reads: {@code {"start": 480,
+ * "duration": 30}} for a range and {@code {"title": ..., "when": ..., "attendees": [...]}} for an
+ * event. The compact form, asked for with {@code ?format=compact}, drops the field names: {@code
+ * [480, 510]} for a range, with the end instead of the duration, and {@code [480, 510, "title",
+ * [...]]} for an event. A relaxation is {@code {"dropped": [...], "times": [...],
+ * "longestDuration": 60, "complete": true}}, or the same four values in an array.
+ */
+final class JsonOutput {
+  private JsonOutput() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns whether {@code request} asked for the compact form.
+   */
+  static boolean isCompact(HttpServletRequest request) {
+    return "compact".equals(request.getParameter("format"));
+  }
+
+  /**
+   * Sets up {@code response} for JSON and returns a writer over its body.
+   */
+  static JsonWriter open(HttpServletResponse response) throws IOException {
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    return new JsonWriter(response.getWriter());
+  }
+
+  static void writeRanges(JsonWriter writer, Collection<TimeRange> ranges, boolean compact)
+      throws IOException {
+    writer.beginArray();
+    for (TimeRange range : ranges) {
+      writeRange(writer, range, compact);
+    }
+    writer.endArray();
+  }
+
+  static void writeRange(JsonWriter writer, TimeRange range, boolean compact) throws IOException {
+    if (compact) {
+      writer.beginArray().value(range.start()).value(range.end()).endArray();
+    } else {
+      writer.beginObject();
+      writer.name("start").value(range.start());
+      writer.name("duration").value(range.duration());
+      writer.endObject();
+    }
+  }
+
+  static void writeEvents(JsonWriter writer, Collection<Event> events, boolean compact)
+      throws IOException {
+    writer.beginArray();
+    for (Event event : events) {
+      writeEvent(writer, event, compact);
+    }
+    writer.endArray();
+  }
+
+  static void writeEvent(JsonWriter writer, Event event, boolean compact) throws IOException {
+    if (compact) {
+      writer.beginArray();
+      writer.value(event.getWhen().start()).value(event.getWhen().end());
+      writer.value(event.getTitle());
+      writeAttendees(writer, event);
+      writer.endArray();
+    } else {
+      writer.beginObject();
+      writer.name("title").value(event.getTitle());
+      writer.name("when");
+      writeRange(writer, event.getWhen(), false);
+      writer.name("attendees");
+      writeAttendees(writer, event);
+      writer.endObject();
+    }
+  }
+
+  static void writeRelaxation(JsonWriter writer, Relaxation relaxation, boolean compact)
+      throws IOException {
+    if (compact) {
+      writer.beginArray();
+    } else {
+      writer.beginObject();
+      writer.name("dropped");
+    }
+    writer.beginArray();
+    for (String attendee : relaxation.getDropped()) {
+      writer.value(attendee);
+    }
+    writer.endArray();
+    if (!compact) {
+      writer.name("times");
+    }
+    writeRanges(writer, relaxation.getTimes(), compact);
+    if (!compact) {
+      writer.name("longestDuration");
+    }
+    writer.value(relaxation.getLongestDuration());
+    if (!compact) {
+      writer.name("complete");
+    }
+    writer.value(relaxation.isComplete());
+    if (compact) {
+      writer.endArray();
+    } else {
+      writer.endObject();
+    }
+  }
+
+  private static void writeAttendees(JsonWriter writer, Event event) throws IOException {
+    writer.beginArray();
+    for (String attendee : event.getAttendees()) {
+      writer.value(attendee);
+    }
+    writer.endArray();
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.EventIndex;
+import com.google.sps.EventStore;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.Placement;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Places several meetings at once, such as a whole interview loop, so that no one has to be in two
+ * of them at the same time. The answer is one range per request, in the order the requests were
+ * given, or an empty array if they can't all be placed. With {@code ?order=given} each meeting also
+ * starts after the one before it ends. Meetings start on multiples of {@code ?step=} minutes, 15 by
+ * default, or at the start of a free window. If the search for a placement runs out of time, the
+ * answer is a 503 rather than a guess.
+ */
+@WebServlet("/query/place")
+public class PlaceMeetingsServlet extends HttpServlet {
+  // The search can take time exponential in the number of meetings, so keep batches small.
+  private static final int MAX_MEETINGS = 16;
+  private static final long BUDGET_MILLIS = 1000;
+  private static final int DEFAULT_STEP = 15;
+
+  private final FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    int step = DEFAULT_STEP;
+    if (request.getParameter("step") != null) {
+      try {
+        step = Integer.parseInt(request.getParameter("step"));
+      } catch (NumberFormatException e) {
+        step = 0;
+      }
+      if (step <= 0 || step > TimeRange.WHOLE_DAY.duration()) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected a step within the day.");
+        return;
+      }
+    }
+
+    List<MeetingRequest> meetingRequests;
+    try {
+      meetingRequests = new JsonInput(request.getReader(), JsonInput.MAX_BODY_LENGTH)
+          .readMeetingRequests(MAX_MEETINGS);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    EventIndex index = store.index();
+    List<TimeRange> answer;
+    if ("given".equals(request.getParameter("order"))) {
+      answer = findMeetingQuery.placeInOrder(index, meetingRequests, step);
+    } else {
+      Placement placement =
+          findMeetingQuery.placeAll(index, meetingRequests, step, BUDGET_MILLIS);
+      if (!placement.isComplete()) {
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+            "Ran out of time placing the meetings.");
+        return;
+      }
+      answer = placement.getTimes();
+    }
+
+    JsonWriter writer = JsonOutput.open(response);
+    JsonOutput.writeRanges(writer, answer, JsonOutput.isCompact(request));
+    writer.flush();
+  }
+}
@@ -14,14 +14,18 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
+import com.google.sps.EventStore;
 import com.google.sps.FindMeetingQuery;
+import com.google.sps.FreeBusyCache;
 import com.google.sps.MeetingRequest;
+import com.google.sps.Relaxation;
+import com.google.sps.SlotPreferences;
 import com.google.sps.TimeRange;
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -29,23 +33,103 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/query")
 public class QueryServlet extends HttpServlet {
+  private static final int MAX_TOP = 100;
+  private static final long MAX_RELAX_MILLIS = 1000;
+
+  // Most queries come from the same few groups of people, so remember their busy time.
+  private final FreeBusyCache cache = new FreeBusyCache(1000);
+  private final FindMeetingQuery findMeetingQuery =
+      new FindMeetingQuery(FindMeetingQuery.Engine.SWEEP, cache);
+  // Requests can pick an engine with ?engine=, for example FORK_JOIN for very large groups. Those
+  // skip the cache so that the engine really does the work.
+  private final Map<FindMeetingQuery.Engine, FindMeetingQuery> engines =
+      new EnumMap<>(FindMeetingQuery.Engine.class);
+  private EventStore store;
+
+  @Override
+  public void init() {
+    store = EventStoreListener.getStore(getServletContext());
+    for (FindMeetingQuery.Engine engine : FindMeetingQuery.Engine.values()) {
+      engines.put(engine, new FindMeetingQuery(engine));
+    }
+  }
+
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
+    FindMeetingQuery query = findMeetingQuery;
+    String engine = request.getParameter("engine");
+    if (engine != null) {
+      try {
+        query = engines.get(FindMeetingQuery.Engine.valueOf(engine));
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown engine: " + engine);
+        return;
+      }
+    }
+
+    // ?top=K asks for only the K best slots, optionally as close as possible to ?target=<minute>.
+    int top = 0;
+    SlotPreferences preferences = SlotPreferences.DEFAULT;
+    if (request.getParameter("top") != null) {
+      try {
+        top = Integer.parseInt(request.getParameter("top"));
+        if (request.getParameter("target") != null) {
+          // Without this, every slot before the target would score the same and the earliest
+          // ones would win the ties.
+          preferences = preferences.withEarliestWeight(0)
+              .withTarget(Integer.parseInt(request.getParameter("target")), 1);
+        }
+      } catch (IllegalArgumentException e) {
+        top = 0;
+      }
+      if (top <= 0 || top > MAX_TOP) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+            "Expected top between 1 and " + MAX_TOP + " and a target within the day.");
+        return;
+      }
+    }
+
+    // ?relax=<milliseconds> asks what it takes to make the meeting fit, searching for that long.
+    long relaxMillis = -1;
+    if (request.getParameter("relax") != null) {
+      try {
+        relaxMillis = Long.parseLong(request.getParameter("relax"));
+      } catch (NumberFormatException e) {
+        relaxMillis = -1;
+      }
+      if (relaxMillis < 0 || relaxMillis > MAX_RELAX_MILLIS) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+            "Expected relax between 0 and " + MAX_RELAX_MILLIS + " milliseconds.");
+        return;
+      }
+    }
 
     // Convert the JSON to an instance of MeetingRequest.
-    MeetingRequest meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    MeetingRequest meetingRequest;
+    try {
+      meetingRequest =
+          new JsonInput(request.getReader(), JsonInput.MAX_BODY_LENGTH).readMeetingRequest();
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
 
-    // Find the possible meeting times.
-    FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
-    Collection<TimeRange> answer =
-        findMeetingQuery.query(Arrays.asList(Events.events), meetingRequest);
+    if (relaxMillis >= 0) {
+      Relaxation relaxation = query.relax(store.index(), meetingRequest, relaxMillis);
+      JsonWriter writer = JsonOutput.open(response);
+      JsonOutput.writeRelaxation(writer, relaxation, JsonOutput.isCompact(request));
+      writer.flush();
+      return;
+    }
 
-    // Convert the times to JSON
-    String jsonResponse = gson.toJson(answer);
+    // Find the possible meeting times.
+    Collection<TimeRange> answer = top > 0
+        ? query.bestSlots(store.index(), meetingRequest, preferences, top)
+        : query.query(store.index(), meetingRequest);
 
-    // Send the JSON back as the response
-    response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    // Send the times back as JSON, written straight into the response.
+    JsonWriter writer = JsonOutput.open(response);
+    JsonOutput.writeRanges(writer, answer, JsonOutput.isCompact(request));
+    writer.flush();
   }
 }
@@ -0,0 +1,48 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.TimeRange;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Reads a {@link TimeRange} from the {@code start} and {@code end} parameters of a request, both
+ * in minutes since the start of the day.
+ */
+final class RangeParameters {
+  private RangeParameters() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns whether {@code request} has a {@code start} or an {@code end} parameter.
+   */
+  static boolean isPresent(HttpServletRequest request) {
+    return request.getParameter("start") != null || request.getParameter("end") != null;
+  }
+
+  /**
+   * Returns the range in {@code request}, or {@code null} if it doesn't have a valid one.
+   */
+  static TimeRange parse(HttpServletRequest request) {
+    try {
+      int start = Integer.parseInt(request.getParameter("start"));
+      int end = Integer.parseInt(request.getParameter("end"));
+      return start < end ? TimeRange.fromStartEnd(start, end, false) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeDirectoryTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  @Test
+  public void internHandsOutDenseStableIds() {
+    AttendeeDirectory directory = new AttendeeDirectory();
+
+    Assert.assertEquals(0, directory.intern(PERSON_A));
+    Assert.assertEquals(1, directory.intern(PERSON_B));
+    Assert.assertEquals(0, directory.intern(PERSON_A));
+    Assert.assertEquals(2, directory.size());
+    Assert.assertEquals(PERSON_B, directory.name(1));
+  }
+
+  @Test
+  public void findSkipsUnknownNames() {
+    AttendeeDirectory directory = new AttendeeDirectory();
+    directory.intern(PERSON_A);
+    directory.intern(PERSON_B);
+
+    Assert.assertEquals(-1, directory.find(PERSON_C));
+    int[] actual = directory.find(Arrays.asList(PERSON_C, PERSON_B, PERSON_A, PERSON_B));
+
+    Assert.assertArrayEquals(new int[] {0, 1}, actual);
+    Assert.assertEquals(2, directory.size());
+  }
+
+  @Test
+  public void intersects() {
+    Assert.assertTrue(AttendeeDirectory.intersects(new int[] {1, 4, 9}, new int[] {2, 9}));
+    Assert.assertFalse(AttendeeDirectory.intersects(new int[] {1, 4, 9}, new int[] {2, 5, 10}));
+    Assert.assertFalse(AttendeeDirectory.intersects(new int[0], new int[] {2}));
+  }
+
+  @Test
+  public void namesActLikeAnyOtherSet() {
+    AttendeeDirectory directory = new AttendeeDirectory();
+    int[] ids = directory.intern(Arrays.asList(PERSON_B, PERSON_A));
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)), directory.asNames(ids));
+    Assert.assertTrue(directory.asNames(ids).contains(PERSON_A));
+    Assert.assertFalse(directory.asNames(ids).contains(PERSON_C));
+  }
+
+  @Test
+  public void eventsWithTheSameAttendeesInAnyOrderAreEqual() {
+    TimeRange when = TimeRange.fromStartDuration(0, 30);
+    Event first = new Event("Event", when, Arrays.asList(PERSON_A, PERSON_B));
+    Event second = new Event("Event", when, Arrays.asList(PERSON_B, PERSON_A, PERSON_A));
+
+    Assert.assertEquals(first, second);
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)), second.getAttendees());
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeHoursTest {
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+  // Monday the 6th of January 2020, counted in days since the epoch.
+  private static final long MONDAY = LocalDate.of(2020, 1, 6).toEpochDay();
+  private static final long MIDNIGHT = MONDAY * 24 * 60;
+
+  @Test
+  public void offHoursAreInTheAttendeesZone() {
+    // 9:00 to 17:00 in New York is 14:00 to 22:00 UTC in January.
+    AttendeeHours hours = new AttendeeHours(
+        WorkingHours.weekdays(NEW_YORK, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+    long[] actual = hours.offHours("Person A", MONDAY);
+    long[] expected = {MIDNIGHT, MIDNIGHT + 14 * 60, MIDNIGHT + 22 * 60, MIDNIGHT + 24 * 60};
+
+    Assert.assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void offHoursAreRememberedUntilTheHoursChange() {
+    AttendeeHours hours = new AttendeeHours(
+        WorkingHours.weekdays(NEW_YORK, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+    long[] first = hours.offHours("Person A", MONDAY);
+    Assert.assertSame(first, hours.offHours("Person A", MONDAY));
+
+    hours.set("Person A", null);
+    Assert.assertNull(hours.get("Person A"));
+    Assert.assertEquals(0, hours.offHours("Person A", MONDAY).length);
+  }
+
+  @Test
+  public void peopleWithoutHoursAreNotRemembered() {
+    AttendeeHours hours = new AttendeeHours(
+        WorkingHours.weekdays(NEW_YORK, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+    long[] first = hours.offHours("Person A", MONDAY);
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertSame(first, hours.offHours("Person " + i, MONDAY));
+    }
+    Assert.assertEquals(0, hours.size());
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class DayBitmapTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  @Test
+  public void emptyDayIsFree() {
+    DayBitmap bitmap = new DayBitmap();
+
+    Collection<TimeRange> actual = bitmap.freeRanges(30);
+    Collection<TimeRange> expected = Arrays.asList(TimeRange.WHOLE_DAY);
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void rangeAcrossWordBoundaries() {
+    // 60 to 200 spans the first, second, third and fourth words of the bitmap.
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setBusy(TimeRange.fromStartEnd(60, 200, false));
+
+    Assert.assertFalse(bitmap.isBusy(59));
+    Assert.assertTrue(bitmap.isBusy(60));
+    Assert.assertTrue(bitmap.isBusy(127));
+    Assert.assertTrue(bitmap.isBusy(128));
+    Assert.assertTrue(bitmap.isBusy(199));
+    Assert.assertFalse(bitmap.isBusy(200));
+  }
+
+  @Test
+  public void orCombinesPeople() {
+    // Events  :       |--A--|
+    //                       |--B--|
+    // Day     : |-----------------------------|
+    // Options : |--1--|             |----2----|
+    DayBitmap a = new DayBitmap();
+    a.setBusy(TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false));
+    DayBitmap b = new DayBitmap();
+    b.setBusy(TimeRange.fromStartEnd(TIME_0830AM, TIME_0900AM, false));
+
+    DayBitmap both = new DayBitmap(a);
+    both.or(b);
+
+    Collection<TimeRange> actual = both.freeRanges(30);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+    // The copy must not have changed the original.
+    Assert.assertFalse(a.isBusy(TIME_0830AM));
+  }
+
+  @Test
+  public void longestFreeRun() {
+    DayBitmap bitmap = new DayBitmap();
+    Assert.assertEquals(TimeRange.WHOLE_DAY.duration(), bitmap.longestFree());
+
+    bitmap.setBusy(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false));
+    bitmap.setBusy(TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true));
+    Assert.assertEquals(TIME_0900AM - TIME_0800AM, bitmap.longestFree());
+
+    bitmap.setBusy(TimeRange.WHOLE_DAY);
+    Assert.assertEquals(0, bitmap.longestFree());
+  }
+
+  @Test
+  public void shortGapsAreSkipped() {
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setBusy(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false));
+    bitmap.setBusy(TimeRange.fromStartEnd(TIME_0830AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(Arrays.asList(), bitmap.freeRanges(60));
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false)),
+        bitmap.freeRanges(30));
+  }
+}
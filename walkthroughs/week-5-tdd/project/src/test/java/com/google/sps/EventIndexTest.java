@@ -0,0 +1,124 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIndexTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_90_MINUTES = 90;
+
+  @Test
+  public void eventsAreSortedPerAttendee() {
+    Event late = new Event("Event 1",
+        TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), Arrays.asList(PERSON_A));
+    Event early = new Event("Event 2",
+        TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+        Arrays.asList(PERSON_A, PERSON_B));
+
+    EventIndex index = new EventIndex(Arrays.asList(late, early));
+
+    Assert.assertEquals(Arrays.asList(early, late), index.getEvents(PERSON_A));
+    Assert.assertEquals(Arrays.asList(early), index.getEvents(PERSON_B));
+    Assert.assertEquals(Collections.emptyList(), index.getEvents(PERSON_C));
+  }
+
+  @Test
+  public void boundsAreMergedAcrossAttendees() {
+    // A's long event ends after B's event, so the ends have to be sorted apart from the starts.
+    //
+    // Events  : |------A------|
+    //               |--B--|
+    //                             |--C--|
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_90_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_C))));
+
+    EventIndex.Bounds bounds = index.bounds(Arrays.asList(PERSON_C, PERSON_B, PERSON_A));
+
+    Assert.assertEquals(3, bounds.count);
+    Assert.assertArrayEquals(
+        new int[] {TIME_0800AM, TIME_0900AM, TIME_1000AM}, Arrays.copyOf(bounds.starts, 3));
+    Assert.assertArrayEquals(
+        new int[] {TIME_0900AM + DURATION_30_MINUTES, TIME_0800AM + DURATION_90_MINUTES,
+            TIME_1000AM + DURATION_30_MINUTES},
+        Arrays.copyOf(bounds.ends, 3));
+  }
+
+  @Test
+  public void unknownAttendeesHaveNoBounds() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A))));
+
+    Assert.assertEquals(0, index.bounds(Arrays.asList(PERSON_B)).count);
+  }
+
+  @Test
+  public void conflictsOnlyIncludeTheGivenAttendees() {
+    Event first = new Event("Event 1",
+        TimeRange.fromStartDuration(TIME_0800AM, DURATION_90_MINUTES), Arrays.asList(PERSON_A));
+    Event second = new Event("Event 2",
+        TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES), Arrays.asList(PERSON_B));
+    EventIndex index = new EventIndex(Arrays.asList(first, second));
+    TimeRange nine = TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES);
+
+    Assert.assertEquals(Arrays.asList(first, second), index.getEvents(nine));
+    Assert.assertEquals(Arrays.asList(first), index.getConflicts(Arrays.asList(PERSON_A), nine));
+    Assert.assertTrue(index.isBusy(Arrays.asList(PERSON_B, PERSON_C), nine));
+    Assert.assertFalse(index.isBusy(Arrays.asList(PERSON_C), nine));
+  }
+
+  @Test
+  public void changesShareUntouchedAttendees() {
+    Event eventA = new Event("Event 1",
+        TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES), Arrays.asList(PERSON_A));
+    Event eventB = new Event("Event 2",
+        TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES), Arrays.asList(PERSON_B));
+    EventIndex index = new EventIndex(Arrays.asList(eventA));
+    int idA = AttendeeDirectory.shared().find(PERSON_A);
+    int idB = AttendeeDirectory.shared().find(PERSON_B);
+
+    EventIndex added = index.withEvent(5, eventB);
+    EventIndex removed = added.withoutEvent(0);
+
+    Assert.assertSame(index.stamp(idA), added.stamp(idA));
+    Assert.assertSame(added.stamp(idB), removed.stamp(idB));
+    Assert.assertNull(removed.stamp(idA));
+    Assert.assertEquals(Arrays.asList(eventA, eventB), added.getEvents());
+    Assert.assertEquals(Collections.singletonMap(5L, eventB), removed.getEventsByKey());
+    Assert.assertSame(removed, removed.withoutEvent(0));
+  }
+}
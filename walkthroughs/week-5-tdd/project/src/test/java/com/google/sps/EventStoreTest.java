@@ -0,0 +1,142 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventStoreTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private static final Event EVENT_A = new Event("Event 1",
+      TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES), Arrays.asList(PERSON_A));
+  private static final Event EVENT_B = new Event("Event 2",
+      TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+      Arrays.asList(PERSON_A, PERSON_B));
+
+  @Test
+  public void snapshotsDoNotChange() {
+    EventStore store = new EventStore(Arrays.asList(EVENT_A));
+    EventIndex before = store.index();
+
+    long id = store.add(EVENT_B);
+
+    Assert.assertEquals(Arrays.asList(EVENT_A), before.getEvents(PERSON_A));
+    Assert.assertEquals(Arrays.asList(EVENT_A, EVENT_B), store.index().getEvents(PERSON_A));
+    Assert.assertEquals(EVENT_B, store.get(id));
+  }
+
+  @Test
+  public void everyChangePublishesTheNextVersion() {
+    EventStore store = new EventStore(Arrays.asList(EVENT_A));
+    EventStore.Snapshot before = store.current();
+
+    long id = store.add(EVENT_B);
+    store.remove(id);
+    EventStore.Snapshot after = store.current();
+
+    Assert.assertEquals(0, before.getVersion());
+    Assert.assertEquals(2, after.getVersion());
+    Assert.assertNull(before.get(id));
+    Assert.assertEquals(Collections.singletonMap(1L, EVENT_A), before.getEvents());
+    Assert.assertEquals(Collections.singletonMap(1L, EVENT_A), after.getEvents());
+    Assert.assertSame(after.getIndex(), store.index());
+  }
+
+  @Test
+  public void updateAndRemove() {
+    EventStore store = new EventStore(Collections.emptyList());
+    long id = store.add(EVENT_A);
+
+    Assert.assertTrue(store.update(id, EVENT_B));
+    Assert.assertEquals(Arrays.asList(EVENT_B), store.index().getEvents(PERSON_A));
+    Assert.assertEquals(Arrays.asList(EVENT_B), store.index().getEvents(PERSON_B));
+
+    Assert.assertTrue(store.remove(id));
+    Assert.assertEquals(Collections.emptyList(), store.index().getEvents(PERSON_A));
+    Assert.assertEquals(0, store.index().size());
+
+    Assert.assertFalse(store.remove(id));
+    Assert.assertFalse(store.update(id, EVENT_A));
+  }
+
+  @Test
+  public void incrementalIndexMatchesRebuiltIndex() {
+    // Apply a random mix of changes and check that queries against the store agree with queries
+    // against an index built from scratch.
+    Random random = new Random(42);
+    String[] people = {PERSON_A, PERSON_B, "Person C", "Person D"};
+    EventStore store = new EventStore(Events.all());
+    List<Long> ids = new ArrayList<>(store.getEvents().keySet());
+
+    for (int i = 0; i < 200; i++) {
+      if (!ids.isEmpty() && random.nextInt(3) == 0) {
+        store.remove(ids.remove(random.nextInt(ids.size())));
+        continue;
+      }
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - 60);
+      Event event = new Event("Event " + i, TimeRange.fromStartDuration(start, 60),
+          Arrays.asList(people[random.nextInt(people.length)], people[random.nextInt(2)]));
+      ids.add(store.add(event));
+    }
+
+    FindMeetingQuery query = new FindMeetingQuery();
+    EventIndex rebuilt = new EventIndex(store.getEvents().values());
+    for (String first : people) {
+      for (String second : people) {
+        MeetingRequest request =
+            new MeetingRequest(Arrays.asList(first, second), DURATION_30_MINUTES);
+        Collection<TimeRange> expected = query.query(rebuilt, request);
+        Assert.assertEquals(expected, query.query(store.index(), request));
+        Assert.assertEquals(expected,
+            new FindMeetingQuery(FindMeetingQuery.Engine.BITMAP).query(store.index(), request));
+      }
+    }
+  }
+
+  @Test
+  public void addAllPublishesOneSnapshot() {
+    EventStore store = new EventStore(Arrays.asList(EVENT_A));
+    EventIndex before = store.index();
+    Event later = new Event("Event 3",
+        TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES), Arrays.asList(PERSON_B));
+
+    long firstId = store.addAll(Arrays.asList(EVENT_B, later));
+
+    Assert.assertEquals(1, before.size());
+    Assert.assertEquals(EVENT_B, store.get(firstId));
+    Assert.assertEquals(later, store.get(firstId + 1));
+    // Events with the same start keep the order they were added in.
+    Assert.assertEquals(Arrays.asList(EVENT_A, EVENT_B), store.index().getEvents(PERSON_A));
+    Assert.assertEquals(Arrays.asList(later, EVENT_B), store.index().getEvents(PERSON_B));
+  }
+}
@@ -0,0 +1,135 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventTableTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  @Test
+  public void boundsComeOutSorted() {
+    // The longer event starts first but ends last, so the ends are in a different order.
+    EventTable table = new EventTable(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, 4 * DURATION_60_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B, PERSON_C)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0900AM, 0),
+            Arrays.asList(PERSON_A))));
+
+    int[] attendees = AttendeeDirectory.shared().find(Arrays.asList(PERSON_A, PERSON_C));
+    EventIndex.Bounds bounds = table.bounds(attendees);
+
+    Assert.assertEquals(2, table.size());
+    Assert.assertEquals(2, bounds.count);
+    Assert.assertArrayEquals(new int[] {TIME_0800AM, TIME_0900AM}, bounds.starts);
+    Assert.assertArrayEquals(
+        new int[] {TIME_0900AM + DURATION_30_MINUTES, TIME_0800AM + 4 * DURATION_60_MINUTES},
+        bounds.ends);
+  }
+
+  @Test
+  public void boundsHoldOnlyTheMatchingRows() {
+    EventTable table = new EventTable(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B))));
+
+    int[] attendees = AttendeeDirectory.shared().find(Arrays.asList(PERSON_B));
+    EventIndex.Bounds bounds = table.bounds(attendees);
+
+    Assert.assertArrayEquals(new int[] {TIME_0900AM}, bounds.starts);
+    Assert.assertArrayEquals(new int[] {TIME_0900AM + DURATION_30_MINUTES}, bounds.ends);
+  }
+
+  @Test
+  public void matchesTheIndexOnTheSampleEvents() {
+    Collection<Event> events = Events.all();
+    assertSameAnswers(events, people(events), new Random(7));
+  }
+
+  @Test
+  public void matchesTheIndexOnRandomEvents() {
+    Random random = new Random(42);
+    List<String> people = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      people.add("Table Person " + i);
+    }
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+      int duration = random.nextInt(Math.min(90, TimeRange.WHOLE_DAY.end() - start));
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          pick(people, 1 + random.nextInt(3), random)));
+    }
+    assertSameAnswers(events, people, random);
+  }
+
+  private static void assertSameAnswers(
+      Collection<Event> events, List<String> people, Random random) {
+    EventIndex index = new EventIndex(events);
+    EventTable table = new EventTable(events);
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    for (int i = 0; i < 200; i++) {
+      MeetingRequest request = new MeetingRequest(
+          pick(people, 1 + random.nextInt(3), random), 15 + random.nextInt(60));
+      for (String optional : pick(people, random.nextInt(3), random)) {
+        request.addOptionalAttendee(optional);
+      }
+      Assert.assertEquals(query.query(index, request), query.query(table, request));
+    }
+  }
+
+  private static List<String> pick(List<String> people, int count, Random random) {
+    List<String> picked = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      picked.add(people.get(random.nextInt(people.size())));
+    }
+    return picked;
+  }
+
+  private static List<String> people(Collection<Event> events) {
+    List<String> people = new ArrayList<>();
+    for (Event event : events) {
+      for (String person : event.getAttendees()) {
+        if (!people.contains(person)) {
+          people.add(person);
+        }
+      }
+    }
+    return people;
+  }
+}
@@ -14,11 +14,15 @@
 
 package com.google.sps;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,8 +39,10 @@ public final class FindMeetingQueryTest {
   private static final String PERSON_A = "Person A";
   private static final String PERSON_B = "Person B";
   private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
 
   // All dates are the first day of the year 2020.
+  private static final int TIME_0700AM = TimeRange.getTimeInMinutes(7, 0);
   private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
   private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
   private static final int TIME_0845AM = TimeRange.getTimeInMinutes(8, 45);
@@ -233,6 +239,36 @@ public final class FindMeetingQueryTest {
     Assert.assertEquals(expected, actual);
   }
 
+  @Test
+  public void chainedOverlappingEvents() {
+    // Have three events where only the first and last are joined through the middle one. They
+    // should be merged into a single busy range.
+    //
+    // Events  :       |--A--|
+    //                     |--B--|
+    //                         |--C--|
+    // Day     : |-----------------------------|
+    // Options : |--1--|             |----2----|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0830AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0900AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B, PERSON_C), DURATION_30_MINUTES);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
   @Test
   public void doubleBookedPeople() {
     // Have one person, but have them registered to attend two events at the same time.
@@ -409,4 +445,474 @@ public final class FindMeetingQueryTest {
     Assert.assertEquals(expected, actual);
   }
 
+  @Test
+  public void bitmapEngineMatchesSweepEngine() {
+    // Both engines should agree on every pair of people in the sample calendar.
+    Collection<Event> events = Events.all();
+    FindMeetingQuery sweep = new FindMeetingQuery(FindMeetingQuery.Engine.SWEEP);
+    FindMeetingQuery bitmap = new FindMeetingQuery(FindMeetingQuery.Engine.BITMAP);
+
+    List<String> people = new ArrayList<>();
+    for (Event event : events) {
+      for (String person : event.getAttendees()) {
+        if (!people.contains(person)) {
+          people.add(person);
+        }
+      }
+    }
+
+    for (String first : people) {
+      for (String second : people) {
+        MeetingRequest request =
+            new MeetingRequest(Arrays.asList(first, second), DURATION_30_MINUTES);
+        Assert.assertEquals(sweep.query(events, request), bitmap.query(events, request));
+      }
+    }
+  }
+
+  @Test
+  public void forkJoinEngineMatchesSweepEngine() {
+    // Groups larger than the threshold are split up, so use enough people to fork several times.
+    Random random = new Random(42);
+    List<String> people = new ArrayList<>();
+    for (int i = 0; i < 5 * FindMeetingQuery.FORK_JOIN_THRESHOLD; i++) {
+      people.add("Person " + i);
+    }
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - DURATION_60_MINUTES);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, DURATION_30_MINUTES),
+          Arrays.asList(people.get(random.nextInt(people.size())))));
+    }
+    EventIndex index = new EventIndex(events);
+    FindMeetingQuery sweep = new FindMeetingQuery(FindMeetingQuery.Engine.SWEEP);
+    FindMeetingQuery forkJoin = new FindMeetingQuery(FindMeetingQuery.Engine.FORK_JOIN);
+
+    for (int size = 1; size <= people.size(); size += 7) {
+      MeetingRequest request = new MeetingRequest(people.subList(0, size), DURATION_30_MINUTES);
+      Assert.assertEquals(sweep.query(index, request), forkJoin.query(index, request));
+    }
+  }
+
+  @Test
+  public void rankByOptionalAttendees() {
+    // Only a meeting starting exactly at 9:30 fits both optional attendees. Every other time A is
+    // free has room for one of them.
+    //
+    // Events  : |------B------|
+    // Events  :                 |------C------|
+    // Events  :       |-A-|
+    // Day     : |-----------------------------|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0930AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<RankedTimeRange> actual = query.rankByOptionalAttendees(new EventIndex(events), request);
+    List<RankedTimeRange> expected = Arrays.asList(
+        new RankedTimeRange(TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false), 2),
+        new RankedTimeRange(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), 1),
+        new RankedTimeRange(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM - 1, false), 1),
+        new RankedTimeRange(
+            TimeRange.fromStartEnd(TIME_0930AM + 1, TimeRange.END_OF_DAY, true), 1));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void rankSplitsWindowsWhereOptionalAttendeesChange() {
+    // B is busy in the middle of A's free morning. Meetings that end before B's event or start
+    // after it get B; the ones that overlap it, starting from 7:01 to 8:29, don't.
+    //
+    // Events  :          |-B-|
+    // Events  :                    |------A------|
+    // Day     : |-----------------------------|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false),
+            Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<RankedTimeRange> actual = query.rankByOptionalAttendees(new EventIndex(events), request);
+    List<RankedTimeRange> expected = Arrays.asList(
+        new RankedTimeRange(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), 1),
+        new RankedTimeRange(TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false), 1),
+        new RankedTimeRange(TimeRange.fromStartEnd(TIME_0700AM + 1, TIME_0930AM - 1, false), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void horizonSpansSeveralDays() {
+    // A two-day horizon where A is busy in the morning of the first day and the whole of the
+    // second day's working hours. Only the first afternoon is left.
+    ZoneId zone = ZoneId.of("America/New_York");
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    LocalDate tuesday = monday.plusDays(1);
+    WorkingHours hours = WorkingHours.weekdays(zone, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    EpochRange horizon = EpochRange.fromZoned(
+        monday.atStartOfDay(zone), tuesday.plusDays(1).atStartOfDay(zone));
+
+    Collection<EpochEvent> events = Arrays.asList(
+        new EpochEvent("Event 1", between(monday, zone, 9, 12), Arrays.asList(PERSON_A)),
+        new EpochEvent("Event 2", between(tuesday, zone, 8, 18), Arrays.asList(PERSON_A)),
+        new EpochEvent("Event 3", between(monday, zone, 13, 14), Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    Collection<EpochRange> actual = query.queryHorizon(events, request, horizon, hours);
+    Collection<EpochRange> expected = Arrays.asList(between(monday, zone, 12, 17));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void horizonConsidersOptionalAttendees() {
+    // Same as above, but B is optional and busy from 13:00 to 14:00 on the first afternoon.
+    ZoneId zone = ZoneId.of("Europe/London");
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    WorkingHours hours = WorkingHours.weekdays(zone, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    EpochRange horizon = EpochRange.fromZoned(
+        monday.atStartOfDay(zone), monday.plusDays(1).atStartOfDay(zone));
+
+    Collection<EpochEvent> events = Arrays.asList(
+        new EpochEvent("Event 1", between(monday, zone, 9, 12), Arrays.asList(PERSON_A)),
+        new EpochEvent("Event 2", between(monday, zone, 13, 14), Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+
+    Collection<EpochRange> actual = query.queryHorizon(events, request, horizon, hours);
+    Collection<EpochRange> expected =
+        Arrays.asList(between(monday, zone, 12, 13), between(monday, zone, 14, 17));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void horizonExpandsRecurringEvents() {
+    // A has a stand-up from 9:00 to 10:00 every weekday, except that it was cancelled on Tuesday.
+    ZoneId zone = ZoneId.of("America/New_York");
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    LocalDate tuesday = monday.plusDays(1);
+    WorkingHours hours = WorkingHours.weekdays(zone, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    EpochRange horizon = EpochRange.fromZoned(
+        monday.atStartOfDay(zone), tuesday.plusDays(1).atStartOfDay(zone));
+
+    Recurrence everyWeekday = Recurrence.weekdays(LocalDate.of(2019, 1, 1)).except(tuesday);
+    Collection<RecurringEvent> recurring = Arrays.asList(new RecurringEvent("Stand-up",
+        TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR), zone, everyWeekday,
+        Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    Collection<EpochRange> actual = query.queryHorizon(
+        Collections.<EpochEvent>emptyList(), recurring, request, horizon, hours);
+    Collection<EpochRange> expected =
+        Arrays.asList(between(monday, zone, 10, 17), between(tuesday, zone, 9, 17));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void horizonKeepsEachAttendeesWorkingHours() {
+    // A works 9:00 to 17:00 in New York and B 9:00 to 17:00 in London, which only overlap from
+    // 14:00 to 17:00 London time. Everyone else works any time.
+    ZoneId newYork = ZoneId.of("America/New_York");
+    ZoneId london = ZoneId.of("Europe/London");
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    EpochRange horizon = EpochRange.fromZoned(
+        monday.atStartOfDay(london), monday.plusDays(1).atStartOfDay(london));
+    AttendeeHours hours = new AttendeeHours(null);
+    hours.set(PERSON_A, WorkingHours.weekdays(newYork, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+    hours.set(PERSON_B, WorkingHours.weekdays(london, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+    Collection<EpochEvent> events = Arrays.asList(
+        new EpochEvent("Event 1", between(monday, london, 14, 15), Arrays.asList(PERSON_C)));
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_C);
+
+    Collection<EpochRange> actual = query.queryHorizon(
+        events, Collections.<RecurringEvent>emptyList(), request, horizon, hours);
+    Collection<EpochRange> expected = Arrays.asList(between(monday, london, 15, 17));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void relaxKeepsEveryoneWhenTheMeetingFits() {
+    Collection<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR), Arrays.asList(PERSON_A)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    Relaxation actual = query.relax(new EventIndex(events), request, 1000);
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(Collections.emptySet(), actual.getDropped());
+    Assert.assertEquals(expected, actual.getTimes());
+    Assert.assertEquals(TimeRange.END_OF_DAY + 1 - TIME_1000AM, actual.getLongestDuration());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test
+  public void relaxDropsTheFewestAttendees() {
+    // A, B and C are only free from 9:00 to 10:00, which is the one hour D is busy. Keeping D, the
+    // least busy person, means leaving out the other three, so D is the one to drop.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A, PERSON_B, PERSON_C)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A, PERSON_B, PERSON_C)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR),
+            Arrays.asList(PERSON_D)));
+    MeetingRequest request = new MeetingRequest(
+        Arrays.asList(PERSON_A, PERSON_B, PERSON_C, PERSON_D), DURATION_30_MINUTES);
+
+    Relaxation actual = query.relax(new EventIndex(events), request, 1000);
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR));
+
+    Assert.assertEquals(Collections.singleton(PERSON_D), actual.getDropped());
+    Assert.assertEquals(expected, actual.getTimes());
+    Assert.assertEquals(0, actual.getLongestDuration());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test
+  public void placeInOrderBuildsALoop() {
+    // C meets A and then B. A is only free from 9:00 to 10:00 and B from 9:30 to 11:00, so the
+    // second interview has to wait for the first one to finish.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0930AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 4", TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)));
+    List<MeetingRequest> requests =
+        Arrays.asList(new MeetingRequest(Arrays.asList(PERSON_C, PERSON_A), DURATION_1_HOUR),
+            new MeetingRequest(Arrays.asList(PERSON_C, PERSON_B), DURATION_1_HOUR));
+
+    List<TimeRange> actual = query.placeInOrder(new EventIndex(events), requests, 30);
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void placeAllKeepsSharedAttendeesApart() {
+    // A is free from 9:00 to 11:00 and B from 9:00 to 10:00. C meets both, so A's meeting moves to
+    // 10:00. D's meeting shares nobody with the others and can take 9:00 too.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A, PERSON_B, PERSON_D)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)));
+    List<MeetingRequest> requests =
+        Arrays.asList(new MeetingRequest(Arrays.asList(PERSON_C, PERSON_A), DURATION_1_HOUR),
+            new MeetingRequest(Arrays.asList(PERSON_C, PERSON_B), DURATION_1_HOUR),
+            new MeetingRequest(Arrays.asList(PERSON_D), DURATION_1_HOUR));
+
+    Placement actual = query.placeAll(new EventIndex(events), requests, 30, 1000);
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false));
+
+    Assert.assertEquals(expected, actual.getTimes());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test
+  public void placeAllWithoutASchedule() {
+    // A and B are both only free from 9:00 to 10:00, and C has to meet each of them for an hour.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A, PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A, PERSON_B)));
+    List<MeetingRequest> requests =
+        Arrays.asList(new MeetingRequest(Arrays.asList(PERSON_C, PERSON_A), DURATION_1_HOUR),
+            new MeetingRequest(Arrays.asList(PERSON_C, PERSON_B), DURATION_1_HOUR));
+
+    Placement actual = query.placeAll(new EventIndex(events), requests, 30, 1000);
+
+    Assert.assertEquals(Collections.emptyList(), actual.getTimes());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test(timeout = 10000)
+  public void placeAllWhenASharedAttendeeIsOverbooked() {
+    // A has to be in eight meetings of three and a half hours, which is more than the whole day.
+    // That is found out without searching the orders the meetings could go in.
+    List<MeetingRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      requests.add(new MeetingRequest(Arrays.asList(PERSON_A, "Person " + i), 210));
+    }
+
+    Placement actual = query.placeAll(new EventIndex(NO_EVENTS), requests, 15, 60 * 1000);
+
+    Assert.assertEquals(Collections.emptyList(), actual.getTimes());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test
+  public void placeAllCountsOnlyFreeMinutes() {
+    // A and B are only free from 9:00 to 11:00, which is not enough for the two meetings with C.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A, PERSON_B, PERSON_C)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A, PERSON_B, PERSON_C)));
+    List<MeetingRequest> requests =
+        Arrays.asList(new MeetingRequest(Arrays.asList(PERSON_C, PERSON_A), DURATION_90_MINUTES),
+            new MeetingRequest(Arrays.asList(PERSON_C, PERSON_B), DURATION_60_MINUTES));
+
+    Placement actual = query.placeAll(new EventIndex(events), requests, 30, 1000);
+
+    Assert.assertEquals(Collections.emptyList(), actual.getTimes());
+    Assert.assertTrue(actual.isComplete());
+  }
+
+  @Test
+  public void bestSlotsAreTheEarliestByDefault() {
+    Collection<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+        Arrays.asList(PERSON_A)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<TimeRange> actual =
+        query.bestSlots(new EventIndex(events), request, SlotPreferences.DEFAULT, 3);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartDuration(TIME_0800AM, 30),
+        TimeRange.fromStartDuration(TIME_0800AM + 15, 30),
+        TimeRange.fromStartDuration(TIME_0830AM, 30));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void bestSlotsNearestTheTarget() {
+    // The slots right before and right after the event are both 45 minutes from 9:15, so the
+    // earlier one comes first.
+    //
+    // Events  :           |--A--|
+    // Day     : |-----------------------------|
+    // Options : |--------|       |------------|
+
+    Collection<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_A)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    SlotPreferences preferences =
+        SlotPreferences.DEFAULT.withEarliestWeight(0).withTarget(TIME_0900AM + 15, 1);
+
+    List<TimeRange> actual = query.bestSlots(new EventIndex(events), request, preferences, 2);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartDuration(TIME_0830AM, 30),
+        TimeRange.fromStartDuration(TIME_1000AM, 30));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void bestSlotsAvoidOptionalAttendeesConflicts() {
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            Arrays.asList(PERSON_B)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<TimeRange> actual =
+        query.bestSlots(new EventIndex(events), request, SlotPreferences.DEFAULT, 1);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartDuration(TIME_0830AM, 30)), actual);
+  }
+
+  @Test
+  public void bestSlotsLeaveABuffer() {
+    // Only the slot in the middle of the hour leaves 15 minutes free on both sides.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    SlotPreferences preferences = SlotPreferences.DEFAULT.withEarliestWeight(0).withBuffer(15, 1);
+
+    List<TimeRange> actual = query.bestSlots(new EventIndex(events), request, preferences, 1);
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartDuration(TIME_0900AM + 15, 30)), actual);
+  }
+
+  @Test
+  public void roomsHoldingEnoughPeople() {
+    Room tiny = new Room("Tiny", 2);
+    Room small = new Room("Small", 4);
+    Room large = new Room("Large", 10);
+    RoomIndex rooms = new RoomIndex(Arrays.asList(large, tiny, small));
+
+    Assert.assertEquals(Arrays.asList(tiny, small, large), rooms.getRooms());
+    Assert.assertEquals(Arrays.asList(small, large), rooms.withCapacity(3));
+    Assert.assertEquals(Arrays.asList(large), rooms.withCapacity(10));
+    Assert.assertEquals(Collections.emptyList(), rooms.withCapacity(11));
+  }
+
+  @Test
+  public void queryWithRoomsPrefersTheSmallestRoom() {
+    // Small is the best fit for three people but is only free from 8:00 to 10:30. Large covers the
+    // start times Small cannot, and Tiny is too small to be offered at all.
+    Room tiny = new Room("Tiny", 2);
+    Room small = new Room("Small", 4);
+    Room large = new Room("Large", 10);
+    RoomIndex rooms = new RoomIndex(Arrays.asList(tiny, small, large));
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR),
+            Arrays.asList(PERSON_A)),
+        new Event("Booked", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList("Small")),
+        new Event("Booked",
+            TimeRange.fromStartEnd(TIME_1000AM + DURATION_30_MINUTES, TimeRange.END_OF_DAY, true),
+            Arrays.asList("Small")));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.queryWithRooms(new EventIndex(events), request, rooms, 3);
+    List<RoomSlot> expected = Arrays.asList(
+        new RoomSlot(
+            TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM + 29, false), large),
+        new RoomSlot(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), small),
+        new RoomSlot(TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), small),
+        new RoomSlot(TimeRange.fromStartEnd(TIME_1000AM + 1, TimeRange.END_OF_DAY, true), large));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  /**
+   * Returns the range from {@code from} o'clock to {@code to} o'clock on {@code day} in {@code
+   * zone}.
+   */
+  private static EpochRange between(LocalDate day, ZoneId zone, int from, int to) {
+    return EpochRange.fromZoned(day.atTime(from, 0).atZone(zone), day.atTime(to, 0).atZone(zone));
+  }
 }
@@ -0,0 +1,133 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class FreeBusyCacheTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private static final Event EVENT_A = new Event("Event 1",
+      TimeRange.fromStartDuration(TIME_0800AM, DURATION_60_MINUTES), Arrays.asList(PERSON_A));
+  private static final Event EVENT_B = new Event("Event 2",
+      TimeRange.fromStartDuration(TIME_0830AM, DURATION_60_MINUTES), Arrays.asList(PERSON_B));
+
+  private EventIndex index;
+  private FreeBusyCache cache;
+
+  @Before
+  public void setUp() {
+    index = new EventIndex(Arrays.asList(EVENT_A, EVENT_B));
+    cache = new FreeBusyCache(2);
+  }
+
+  @Test
+  public void busyTimeIsMerged() {
+    EventIndex.Bounds busy = cache.busy(index, Arrays.asList(PERSON_A, PERSON_B));
+
+    Assert.assertEquals(1, busy.count);
+    Assert.assertEquals(TIME_0800AM, busy.starts[0]);
+    Assert.assertEquals(TIME_0830AM + DURATION_60_MINUTES, busy.ends[0]);
+  }
+
+  @Test
+  public void attendeeOrderDoesNotMatter() {
+    cache.busy(index, Arrays.asList(PERSON_A, PERSON_B));
+    cache.busy(index, Arrays.asList(PERSON_B, PERSON_A));
+
+    Assert.assertEquals(1, cache.getMisses());
+    Assert.assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void differentDurationsShareTheBusyTime() {
+    FindMeetingQuery query = new FindMeetingQuery(FindMeetingQuery.Engine.SWEEP, cache);
+
+    Collection<TimeRange> shortMeeting = query.query(
+        index, new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES));
+    Collection<TimeRange> longMeeting = query.query(
+        index, new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_60_MINUTES));
+
+    Assert.assertEquals(shortMeeting, longMeeting);
+    Assert.assertEquals(1, cache.getMisses());
+    Assert.assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void leastRecentlyUsedGroupIsEvicted() {
+    cache.busy(index, Arrays.asList(PERSON_A));
+    cache.busy(index, Arrays.asList(PERSON_B));
+    cache.busy(index, Arrays.asList(PERSON_A));
+    cache.busy(index, Arrays.asList(PERSON_C));
+
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(1, cache.getEvictions());
+
+    // A was used more recently than B, so it should still be there.
+    cache.busy(index, Arrays.asList(PERSON_A));
+    Assert.assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void changesOnlyRecomputeAffectedGroups() {
+    cache.busy(index, Arrays.asList(PERSON_A, PERSON_B));
+    cache.busy(index, Arrays.asList(PERSON_C));
+
+    Event added = new Event("Event 3",
+        TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES), Arrays.asList(PERSON_B));
+    EventIndex changed = index.withEvent(2, added);
+    cache.busy(changed, Arrays.asList(PERSON_C));
+    EventIndex.Bounds busy = cache.busy(changed, Arrays.asList(PERSON_A, PERSON_B));
+
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(3, cache.getMisses());
+    Assert.assertEquals(TIME_0900AM + DURATION_30_MINUTES, busy.ends[0]);
+  }
+
+  @Test
+  public void queriesOnOldSnapshotsDontLeaveStaleEntries() {
+    EventStore store = new EventStore(Collections.<Event>emptyList());
+    FindMeetingQuery query = new FindMeetingQuery(FindMeetingQuery.Engine.SWEEP, cache);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_C), DURATION_30_MINUTES);
+    EventIndex old = store.index();
+    store.add(new Event("Event 3", TimeRange.fromStartDuration(600, 60), Arrays.asList(PERSON_C)));
+
+    Collection<TimeRange> before = query.query(old, request);
+    Collection<TimeRange> after = query.query(store.index(), request);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY), before);
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(0, 600, false),
+        TimeRange.fromStartEnd(660, TimeRange.END_OF_DAY, true)), after);
+  }
+}
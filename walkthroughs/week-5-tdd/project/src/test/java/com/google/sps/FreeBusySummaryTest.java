@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class FreeBusySummaryTest {
+  private static final String PERSON_A = "Summary Person A";
+  private static final String PERSON_B = "Summary Person B";
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+
+  private static final TimeRange WORKING_DAY =
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false);
+
+  @Test
+  public void blocksThatAreOnlyPartlyBusy() {
+    // Busy from 9:10 to 10:00, so the 9:00 block is touched and the 9:15 to 9:45 blocks are full.
+    DayBitmap busy = new DayBitmap();
+    busy.setBusy(TIME_0900AM + 10, TIME_1000AM);
+    FreeBusySummary summary = FreeBusySummary.of(busy, 15);
+    TimeRange nineToTen = TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false);
+
+    // Ten free minutes fit before the event, but the summary can't promise them.
+    Assert.assertTrue(summary.mayFit(10, nineToTen));
+    Assert.assertFalse(summary.surelyFits(10, nineToTen));
+    // Anything longer than the first block can't fit.
+    Assert.assertFalse(summary.mayFit(16, nineToTen));
+  }
+
+  @Test
+  public void summariesFollowChangesToTheStore() {
+    EventStore store = new EventStore(Collections.emptyList());
+    Event allDay = new Event("Event 1", WORKING_DAY, Arrays.asList(PERSON_A));
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    long id = store.add(allDay);
+    Assert.assertFalse(
+        query.hasAvailableTime(store.index(), Arrays.asList(PERSON_A), 30, WORKING_DAY));
+
+    store.remove(id);
+    Assert.assertTrue(
+        query.hasAvailableTime(store.index(), Arrays.asList(PERSON_A), 30, WORKING_DAY));
+  }
+
+  @Test
+  public void hasAvailableTimeMatchesTheSweep() {
+    Random random = new Random(42);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      int start = TIME_0900AM + random.nextInt(WORKING_DAY.duration());
+      int duration = 5 + random.nextInt(90);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          Arrays.asList(random.nextBoolean() ? PERSON_A : PERSON_B)));
+    }
+    EventIndex index = new EventIndex(events);
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    for (int duration = 1; duration <= 120; duration += 7) {
+      for (int from = TIME_0900AM; from < TIME_0500PM; from += 37) {
+        TimeRange within = TimeRange.fromStartEnd(from, TIME_0500PM, false);
+        List<String> both = Arrays.asList(PERSON_A, PERSON_B);
+
+        boolean expected = false;
+        for (TimeRange free : query.findAvailableTimeRanges(index, both, duration)) {
+          int start = Math.max(free.start(), within.start());
+          expected |= Math.min(free.end(), within.end()) - start >= duration;
+        }
+        Assert.assertEquals(expected, query.hasAvailableTime(index, both, duration, within));
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class IntervalTreeTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final Function<TimeRange, TimeRange> IDENTITY = range -> range;
+
+  @Test
+  public void touchingRangesDoNotOverlap() {
+    TimeRange morning = TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false);
+    IntervalTree<TimeRange> tree = IntervalTree.of(Arrays.asList(morning), IDENTITY);
+
+    TimeRange afterwards = TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false);
+
+    Assert.assertFalse(tree.anyOverlapping(afterwards));
+    Assert.assertEquals(Collections.emptyList(),
+        tree.overlapping(afterwards));
+    Assert.assertEquals(Arrays.asList(morning),
+        tree.overlapping(TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false)));
+  }
+
+  @Test
+  public void emptyRangesAreLeftOut() {
+    TimeRange empty = TimeRange.fromStartDuration(TIME_0830AM, 0);
+    IntervalTree<TimeRange> tree = IntervalTree.of(Arrays.asList(empty), IDENTITY);
+
+    Assert.assertEquals(0, tree.size());
+    Assert.assertFalse(tree.anyOverlapping(TimeRange.WHOLE_DAY));
+  }
+
+  @Test
+  public void matchesPairwiseOverlaps() {
+    // Compare the tree against checking every range one by one.
+    Random random = new Random(42);
+    List<TimeRange> ranges = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      ranges.add(randomRange(random));
+    }
+    IntervalTree<TimeRange> tree = IntervalTree.of(ranges, IDENTITY);
+
+    for (int i = 0; i < 500; i++) {
+      TimeRange query = randomRange(random);
+      List<TimeRange> expected = new ArrayList<>();
+      for (TimeRange range : ranges) {
+        if (range.overlaps(query)) {
+          expected.add(range);
+        }
+      }
+      Collection<TimeRange> actual = tree.overlapping(query);
+
+      Assert.assertEquals(expected.size(), actual.size());
+      Assert.assertTrue(actual.containsAll(expected));
+      Assert.assertEquals(!expected.isEmpty(), tree.anyOverlapping(query));
+    }
+  }
+
+  private static TimeRange randomRange(Random random) {
+    int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+    int duration = 1 + random.nextInt(Math.min(120, TimeRange.WHOLE_DAY.duration() - start));
+    return TimeRange.fromStartDuration(start, duration);
+  }
+}
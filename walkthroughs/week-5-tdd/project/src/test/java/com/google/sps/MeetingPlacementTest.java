@@ -0,0 +1,84 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MeetingPlacementTest {
+  private static final int[] TEN_MINUTES = {10, 10, 10};
+  private static final boolean[][] ALL_CLASH = {
+      {false, true, true}, {true, false, true}, {true, true, false}};
+
+  @Test
+  public void anyOrderBacksUp() {
+    // Taking the earliest start for the first two meetings leaves nothing for the third one, so the
+    // second one has to move to 20.
+    int[][] domains = {{0, 10}, {10, 20}, {0, 10}};
+
+    int[] actual = anyOrder(domains, TEN_MINUTES, ALL_CLASH);
+
+    Assert.assertArrayEquals(new int[] {0, 20, 10}, actual);
+  }
+
+  @Test
+  public void anyOrderWithoutAnAnswer() {
+    int[][] domains = {{0, 10}, {0, 10}, {0, 10}};
+
+    Assert.assertNull(anyOrder(domains, TEN_MINUTES, ALL_CLASH));
+  }
+
+  @Test
+  public void meetingsThatDontClashMayOverlap() {
+    int[][] domains = {{0}, {0}, {0}};
+    boolean[][] noClashes = new boolean[3][3];
+
+    int[] actual = anyOrder(domains, TEN_MINUTES, noClashes);
+
+    Assert.assertArrayEquals(new int[] {0, 0, 0}, actual);
+  }
+
+  @Test
+  public void givesUpOnceTheDeadlinePasses() {
+    int[][] domains = {{0, 10}, {10, 20}, {0, 10}};
+    MeetingPlacement placement =
+        new MeetingPlacement(domains, TEN_MINUTES, ALL_CLASH, System.nanoTime() - 1);
+
+    Assert.assertNull(placement.run());
+    Assert.assertFalse(placement.isComplete());
+  }
+
+  @Test
+  public void inOrderStartsEachMeetingAfterThePreviousOne() {
+    int[][] domains = {{0, 10}, {0, 5, 15}, {20, 25}};
+
+    Assert.assertArrayEquals(
+        new int[] {0, 15, 25}, MeetingPlacement.inOrder(domains, TEN_MINUTES));
+    Assert.assertNull(MeetingPlacement.inOrder(new int[][] {{0}, {5}, {20}}, TEN_MINUTES));
+  }
+
+  private static int[] anyOrder(int[][] domains, int[] durations, boolean[][] conflicts) {
+    MeetingPlacement placement = new MeetingPlacement(
+        domains, durations, conflicts, System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+    int[] starts = placement.run();
+    Assert.assertTrue(placement.isComplete());
+    return starts;
+  }
+}
\ No newline at end of file
@@ -44,4 +44,33 @@ public final class MeetingRequestTest {
     int expected = 0;
     Assert.assertEquals(expected, actual);
   }
+
+  @Test
+  public void unknownAttendeesAreNotInterned() {
+    AttendeeDirectory directory = AttendeeDirectory.shared();
+    directory.intern(PERSON_A);
+    int size = directory.size();
+
+    MeetingRequest request = new MeetingRequest(
+        Arrays.asList(PERSON_A, "Nobody " + System.nanoTime()), DURATION_1_HOUR);
+    request.addOptionalAttendee("Nobody else " + System.nanoTime());
+
+    Assert.assertArrayEquals(new int[] {directory.find(PERSON_A)}, request.getAttendeeIds());
+    Assert.assertArrayEquals(new int[0], request.getOptionalAttendeeIds());
+    Assert.assertEquals(2, request.getAttendees().size());
+    Assert.assertEquals(size, directory.size());
+  }
+
+  @Test
+  public void attendeesAreFoundOnceTheyHaveEvents() {
+    String newcomer = "Newcomer " + System.nanoTime();
+    MeetingRequest request = new MeetingRequest(Arrays.asList(newcomer), DURATION_1_HOUR);
+    Assert.assertArrayEquals(new int[0], request.getAttendeeIds());
+
+    new Event("Event 1", TimeRange.WHOLE_DAY, Arrays.asList(newcomer));
+
+    Assert.assertArrayEquals(
+        new int[] {AttendeeDirectory.shared().find(newcomer)}, request.getAttendeeIds());
+    Assert.assertSame(request.getAttendeeIds(), request.getAttendeeIds());
+  }
 }
\ No newline at end of file
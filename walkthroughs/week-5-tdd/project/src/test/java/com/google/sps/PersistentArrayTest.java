@@ -0,0 +1,85 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class PersistentArrayTest {
+  @Test
+  public void changesLeaveTheOriginalAlone() {
+    PersistentArray<String> empty = PersistentArray.empty();
+    PersistentArray<String> one = empty.with(3, "a");
+    PersistentArray<String> two = one.with(100000, "b");
+    PersistentArray<String> back = two.without(3);
+
+    Assert.assertEquals(0, empty.size());
+    Assert.assertEquals(Arrays.asList("a"), one.values());
+    Assert.assertEquals(Arrays.asList("a", "b"), two.values());
+    Assert.assertEquals(Arrays.asList("b"), back.values());
+    Assert.assertNull(back.get(3));
+    Assert.assertEquals("b", back.get(100000));
+    Assert.assertNull(two.get(-1));
+    Assert.assertNull(two.get(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void removingEverythingLeavesAnEmptyArray() {
+    PersistentArray<String> array = PersistentArray.<String>empty().with(40, "a").without(40);
+
+    Assert.assertEquals(0, array.size());
+    Assert.assertEquals(Collections.emptyList(), array.values());
+    Assert.assertEquals(Collections.emptyMap(), array.asMap());
+  }
+
+  @Test
+  public void matchesASortedMap() {
+    // Apply a random mix of changes, in batches and one at a time, and compare with a TreeMap.
+    Random random = new Random(42);
+    TreeMap<Long, Integer> expected = new TreeMap<>();
+    PersistentArray<Integer> array = PersistentArray.empty();
+    for (int round = 0; round < 200; round++) {
+      PersistentArray.Builder<Integer> builder = array.toBuilder();
+      for (int i = 0; i < 20; i++) {
+        long key = random.nextInt(round < 100 ? 5000 : 1 << 20);
+        if (random.nextInt(3) == 0) {
+          expected.remove(key);
+          builder.set(key, null);
+        } else {
+          expected.put(key, i);
+          builder.set(key, i);
+        }
+      }
+      PersistentArray<Integer> before = array;
+      List<Integer> valuesBefore = new ArrayList<>(before.values());
+      array = builder.build();
+
+      Assert.assertEquals(valuesBefore, before.values());
+      Assert.assertEquals(expected, array.asMap());
+      Assert.assertEquals(new ArrayList<>(expected.values()), array.values());
+      Assert.assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(array.values()));
+    }
+  }
+}
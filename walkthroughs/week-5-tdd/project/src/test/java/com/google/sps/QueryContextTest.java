@@ -0,0 +1,132 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryContextTest {
+  private static final int PEOPLE = 20;
+
+  @Test
+  public void matchesFindMeetingQuery() {
+    Random random = new Random(42);
+    EventIndex index = new EventIndex(randomEvents(random));
+    FindMeetingQuery query = new FindMeetingQuery();
+    QueryContext context = new QueryContext();
+    int[] out = new int[2 * TimeRange.WHOLE_DAY.duration()];
+
+    for (int i = 0; i < 500; i++) {
+      List<String> attendees = pick(random.nextInt(4), random);
+      List<String> optionals = pick(random.nextInt(4), random);
+      long duration = random.nextInt(120);
+      MeetingRequest request = new MeetingRequest(attendees, duration);
+      for (String optional : optionals) {
+        request.addOptionalAttendee(optional);
+      }
+
+      int count = context.query(index, ids(request.getAttendees()),
+          ids(request.getOptionalAttendees()), duration, out);
+      List<TimeRange> actual = new ArrayList<>();
+      for (int slot = 0; slot < count; slot++) {
+        actual.add(TimeRange.fromStartEnd(out[2 * slot], out[2 * slot + 1], false));
+      }
+      Assert.assertEquals(new ArrayList<>(query.query(index, request)), actual);
+    }
+  }
+
+  @Test
+  public void reportsSlotsThatDoNotFit() {
+    EventIndex index = new EventIndex(randomEvents(new Random(42)));
+    int[] out = new int[2];
+
+    int count = new QueryContext().query(index, new int[0], new int[0], 30, out);
+
+    Assert.assertEquals(1, count);
+    Assert.assertArrayEquals(new int[] {0, TimeRange.WHOLE_DAY.end()}, out);
+  }
+
+  @Test
+  public void steadyStateQueriesDoNotAllocate() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Random random = new Random(42);
+    EventIndex index = new EventIndex(randomEvents(random));
+    int[][] attendees = new int[64][];
+    int[][] optionals = new int[64][];
+    for (int i = 0; i < attendees.length; i++) {
+      attendees[i] = ids(pick(1 + random.nextInt(3), random));
+      optionals[i] = ids(pick(random.nextInt(3), random));
+    }
+    QueryContext context = new QueryContext();
+    int[] out = new int[2 * TimeRange.WHOLE_DAY.duration()];
+
+    long thread = Thread.currentThread().getId();
+    for (int i = 0; i < 20000; i++) {
+      context.query(index, attendees[i % 64], optionals[i % 64], 30, out);
+    }
+    int queries = 10000;
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < queries; i++) {
+      context.query(index, attendees[i % 64], optionals[i % 64], 30, out);
+    }
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    // Reading the counter may allocate a little itself, which rounds away over many queries.
+    Assert.assertEquals(0, allocated / queries);
+  }
+
+  private static List<Event> randomEvents(Random random) {
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+      int duration = random.nextInt(Math.min(120, TimeRange.WHOLE_DAY.end() - start));
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          pick(1 + random.nextInt(2), random)));
+    }
+    return events;
+  }
+
+  private static List<String> pick(int count, Random random) {
+    List<String> picked = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      picked.add("Context Person " + random.nextInt(PEOPLE));
+    }
+    return picked;
+  }
+
+  private static int[] ids(Collection<String> people) {
+    int[] ids = new int[people.size()];
+    int i = 0;
+    for (String person : people) {
+      ids[i++] = AttendeeDirectory.shared().find(person);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,129 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RecurrenceTest {
+  // Wednesday the 1st of January 2020.
+  private static final LocalDate FIRST = LocalDate.of(2020, 1, 1);
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+  @Test
+  public void dailyRepeatsEveryInterval() {
+    Recurrence rule = Recurrence.daily(FIRST, 3);
+
+    Assert.assertFalse(rule.occursOn(FIRST.minusDays(3)));
+    Assert.assertTrue(rule.occursOn(FIRST));
+    Assert.assertFalse(rule.occursOn(FIRST.plusDays(1)));
+    Assert.assertTrue(rule.occursOn(FIRST.plusDays(3)));
+    Assert.assertTrue(rule.occursOn(FIRST.plusDays(300)));
+  }
+
+  @Test
+  public void weeklyRepeatsOnTheGivenDays() {
+    // Tuesdays and Thursdays every other week. The Tuesday of the first week is before the first
+    // day, so it is skipped.
+    Recurrence rule =
+        Recurrence.weekly(FIRST, 2, Arrays.asList(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY));
+
+    Assert.assertFalse(rule.occursOn(LocalDate.of(2019, 12, 31)));
+    Assert.assertFalse(rule.occursOn(FIRST));
+    Assert.assertTrue(rule.occursOn(LocalDate.of(2020, 1, 2)));
+    Assert.assertFalse(rule.occursOn(LocalDate.of(2020, 1, 7)));
+    Assert.assertFalse(rule.occursOn(LocalDate.of(2020, 1, 9)));
+    Assert.assertTrue(rule.occursOn(LocalDate.of(2020, 1, 14)));
+    Assert.assertTrue(rule.occursOn(LocalDate.of(2020, 1, 16)));
+  }
+
+  @Test
+  public void untilAndExceptionsAreSkipped() {
+    Recurrence rule = Recurrence.weekdays(FIRST).until(FIRST.plusDays(6)).except(FIRST.plusDays(1));
+
+    Assert.assertTrue(rule.occursOn(FIRST));
+    Assert.assertFalse(rule.occursOn(FIRST.plusDays(1)));
+    Assert.assertTrue(rule.occursOn(FIRST.plusDays(2)));
+    // Saturday and Sunday.
+    Assert.assertFalse(rule.occursOn(FIRST.plusDays(3)));
+    Assert.assertFalse(rule.occursOn(FIRST.plusDays(4)));
+    Assert.assertTrue(rule.occursOn(FIRST.plusDays(6)));
+    Assert.assertFalse(rule.occursOn(FIRST.plusDays(7)));
+  }
+
+  @Test
+  public void occurrencesOnlyCoverTheWindow() {
+    RecurringEvent event = new RecurringEvent("Stand-up",
+        TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(9, 0), 15), NEW_YORK,
+        Recurrence.daily(FIRST, 1), Arrays.asList("Person A"));
+    LocalDate day = LocalDate.of(2020, 6, 1);
+    EpochRange window = EpochRange.fromZoned(
+        day.atStartOfDay(NEW_YORK), day.plusDays(2).atStartOfDay(NEW_YORK));
+
+    List<EpochEvent> actual = event.occurrences(window);
+    List<EpochEvent> expected = Arrays.asList(
+        new EpochEvent("Stand-up", at(day), Arrays.asList("Person A")),
+        new EpochEvent("Stand-up", at(day.plusDays(1)), Arrays.asList("Person A")));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void occurrencesKeepTheirTimesWhenTheClocksChange() {
+    // The clocks in New York went forward an hour at 2:00 on the 8th of March 2020, and back an
+    // hour at 2:00 on the 1st of November.
+    RecurringEvent event = new RecurringEvent("Stand-up",
+        TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(9, 0), 15), NEW_YORK,
+        Recurrence.daily(FIRST, 1), Arrays.asList("Person A"));
+
+    for (LocalDate day : Arrays.asList(LocalDate.of(2020, 3, 8), LocalDate.of(2020, 11, 1))) {
+      EpochRange window = EpochRange.fromZoned(
+          day.atStartOfDay(NEW_YORK), day.plusDays(1).atStartOfDay(NEW_YORK));
+      long[] starts = new long[1];
+      long[] ends = new long[1];
+
+      Assert.assertEquals(1, event.expand(window, starts, ends, 0));
+      Assert.assertEquals(at(day), EpochRange.fromStartEnd(starts[0], ends[0]));
+      List<EpochEvent> occurrences = event.occurrences(window);
+      Assert.assertEquals(1, occurrences.size());
+      Assert.assertEquals(at(day), occurrences.get(0).getWhen());
+    }
+  }
+
+  @Test
+  public void onDayKeepsWallClockTimes() {
+    // 1:30 to 3:30 on the day the clocks go forward is only an hour long.
+    LocalDate day = LocalDate.of(2020, 3, 8);
+    EpochRange actual = EpochRange.onDay(TimeRange.fromStartEnd(90, 210, false), day, NEW_YORK);
+
+    Assert.assertEquals(EpochRange.fromZoned(day.atTime(1, 30).atZone(NEW_YORK),
+        day.atTime(3, 30).atZone(NEW_YORK)), actual);
+    Assert.assertEquals(60, actual.duration());
+  }
+
+  private static EpochRange at(LocalDate day) {
+    return EpochRange.fromZoned(
+        day.atTime(9, 0).atZone(NEW_YORK), day.atTime(9, 15).atZone(NEW_YORK));
+  }
+}
@@ -0,0 +1,61 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeSweepTest {
+  // Busy ranges:  |---A---|
+  //                   |--B--|
+  //                         |-C-|
+  //                                  |-D-|
+  private static final int[] STARTS = {60, 90, 130, 300};
+  private static final int[] ENDS = {120, 130, 160, 360};
+
+  @Test
+  public void overlappingAndTouchingRangesAreMerged() {
+    int[] merged = new int[2 * STARTS.length];
+
+    int count = TimeSweep.mergeBusy(STARTS, ENDS, STARTS.length, merged);
+
+    Assert.assertEquals(2, count);
+    Assert.assertArrayEquals(new int[] {60, 160, 300, 360}, Arrays.copyOf(merged, 2 * count));
+  }
+
+  @Test
+  public void freeRangesAreTheGapsBetweenMergedRanges() {
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(0, 60, false),
+            TimeRange.fromStartEnd(160, 300, false),
+            TimeRange.fromStartEnd(360, TimeRange.END_OF_DAY, true)),
+        TimeSweep.freeRanges(STARTS, ENDS, STARTS.length, 60));
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(160, 300, false),
+            TimeRange.fromStartEnd(360, TimeRange.END_OF_DAY, true)),
+        TimeSweep.freeRanges(STARTS, ENDS, STARTS.length, 61));
+  }
+
+  @Test
+  public void nothingBusyLeavesTheWholeDay() {
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY),
+        TimeSweep.freeRanges(new int[0], new int[0], 0, 30));
+  }
+}
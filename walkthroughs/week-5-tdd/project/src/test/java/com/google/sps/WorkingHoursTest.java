@@ -0,0 +1,89 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class WorkingHoursTest {
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+  @Test
+  public void weekendsAreSkipped() {
+    // Friday the 10th through Monday the 13th of January 2020.
+    LocalDate friday = LocalDate.of(2020, 1, 10);
+    LocalDate monday = friday.plusDays(3);
+    WorkingHours hours = WorkingHours.weekdays(NEW_YORK, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    EpochRange horizon = EpochRange.fromZoned(
+        friday.atStartOfDay(NEW_YORK), monday.plusDays(1).atStartOfDay(NEW_YORK));
+
+    Collection<EpochRange> actual = hours.windows(horizon);
+    Collection<EpochRange> expected =
+        Arrays.asList(between(friday, LocalTime.of(9, 0), friday, LocalTime.of(17, 0)),
+            between(monday, LocalTime.of(9, 0), monday, LocalTime.of(17, 0)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void windowsFollowClockChanges() {
+    // The clocks in New York went forward on Sunday the 8th of March 2020, so the Monday window
+    // starts an hour earlier in absolute time than it would have without the change.
+    LocalDate friday = LocalDate.of(2020, 3, 6);
+    LocalDate monday = friday.plusDays(3);
+    WorkingHours hours = WorkingHours.weekdays(NEW_YORK, LocalTime.of(9, 0), LocalTime.of(17, 0));
+    EpochRange horizon = EpochRange.fromZoned(
+        friday.atStartOfDay(NEW_YORK), monday.plusDays(1).atStartOfDay(NEW_YORK));
+
+    EpochRange fridayWindow = hours.windows(horizon).get(0);
+    EpochRange mondayWindow = hours.windows(horizon).get(1);
+
+    Assert.assertEquals(3 * 24 * 60 - 60, mondayWindow.start() - fridayWindow.start());
+    Assert.assertEquals(8 * 60, mondayWindow.duration());
+  }
+
+  @Test
+  public void overnightWindowsRunIntoTheNextDay() {
+    // A night shift starting on Sunday evening should still show up in a horizon that starts on
+    // Monday.
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    WorkingHours hours = new WorkingHours(
+        NEW_YORK, LocalTime.of(22, 0), LocalTime.of(6, 0), Arrays.asList(DayOfWeek.SUNDAY));
+    EpochRange horizon = EpochRange.fromZoned(
+        monday.atStartOfDay(NEW_YORK), monday.plusDays(1).atStartOfDay(NEW_YORK));
+
+    Collection<EpochRange> actual = hours.windows(horizon);
+    Collection<EpochRange> expected =
+        Arrays.asList(between(monday, LocalTime.MIDNIGHT, monday, LocalTime.of(6, 0)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  private static EpochRange between(LocalDate startDay, LocalTime start, LocalDate endDay,
+      LocalTime end) {
+    return EpochRange.fromZoned(
+        startDay.atTime(start).atZone(NEW_YORK), endDay.atTime(end).atZone(NEW_YORK));
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.TimeRange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EncodedEventsTest {
+  private static final Event EVENT = new Event(
+      "Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList("Person A"));
+
+  @Test
+  public void bothEncodingsHoldTheSameEvents() throws IOException {
+    EventStore store = new EventStore(Arrays.asList(EVENT));
+    EncodedEvents encoded = EncodedEvents.encode(store.current(), false, "g");
+    StringWriter expected = new StringWriter();
+    JsonOutput.writeEvents(new JsonWriter(expected), Arrays.asList(EVENT), false);
+
+    Assert.assertEquals(
+        expected.toString(), new String(encoded.getBytes(false), StandardCharsets.UTF_8));
+    Assert.assertEquals(expected.toString(), gunzip(encoded.getBytes(true)));
+  }
+
+  @Test
+  public void tagsChangeWithTheVersion() throws IOException {
+    EventStore store = new EventStore(Arrays.asList(EVENT));
+    EncodedEvents before = EncodedEvents.encode(store.current(), false, "g");
+    store.add(EVENT);
+    EncodedEvents after = EncodedEvents.encode(store.current(), false, "g");
+
+    Assert.assertEquals("\"g-0-object\"", before.getETag(false));
+    Assert.assertEquals("\"g-0-object-gzip\"", before.getETag(true));
+    Assert.assertEquals("\"g-1-object\"", after.getETag(false));
+    Assert.assertEquals(1, after.getVersion());
+  }
+
+  @Test
+  public void ifNoneMatch() {
+    Assert.assertFalse(EncodedEvents.matches(null, "\"a\""));
+    Assert.assertTrue(EncodedEvents.matches("\"a\"", "\"a\""));
+    Assert.assertTrue(EncodedEvents.matches("\"b\", W/\"a\"", "\"a\""));
+    Assert.assertTrue(EncodedEvents.matches("*", "\"a\""));
+    Assert.assertFalse(EncodedEvents.matches("\"a-gzip\"", "\"a\""));
+  }
+
+  @Test
+  public void acceptEncoding() {
+    Assert.assertFalse(EncodedEvents.acceptsGzip(null));
+    Assert.assertTrue(EncodedEvents.acceptsGzip("gzip, deflate, br"));
+    Assert.assertTrue(EncodedEvents.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+    Assert.assertFalse(EncodedEvents.acceptsGzip("gzip;q=0"));
+    Assert.assertFalse(EncodedEvents.acceptsGzip("identity"));
+  }
+
+  private static String gunzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      byte[] buffer = new byte[4096];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.EventStore;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventsServletTest {
+  private EventStore store;
+  private EventsServlet servlet;
+
+  @Before
+  public void setUp() throws ServletException {
+    store = new EventStore(Arrays.asList());
+    servlet = FakeServlets.init(new EventsServlet(), store);
+  }
+
+  @Test
+  public void addsAnEvent() throws IOException {
+    Assert.assertEquals(HttpServletResponse.SC_OK, post(event(480, 30)));
+    Assert.assertEquals(1, store.current().getEvents().size());
+  }
+
+  @Test
+  public void sendsBackTheNewId() throws IOException {
+    post(event(480, 30));
+
+    Assert.assertEquals("{\"id\":2}", send(event(540, 30)).body().trim());
+  }
+
+  @Test
+  public void rejectsEventsWhoseEndOverflows() throws IOException {
+    // As ints, 2147483600 + 100 wraps around to a negative end.
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, post(event(2147483600, 100)));
+    Assert.assertTrue(store.current().getEvents().isEmpty());
+  }
+
+  @Test
+  public void rejectsEventsThatStartBeforeTheDay() throws IOException {
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, post(event(-30, 60)));
+    Assert.assertTrue(store.current().getEvents().isEmpty());
+  }
+
+  @Test
+  public void rejectsEventsThatEndAfterTheDay() throws IOException {
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, post(event(1410, 60)));
+    Assert.assertTrue(store.current().getEvents().isEmpty());
+  }
+
+  @Test
+  public void rejectsEventsWithANegativeDuration() throws IOException {
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, post(event(600, -30)));
+    Assert.assertTrue(store.current().getEvents().isEmpty());
+  }
+
+  private int post(String body) throws IOException {
+    return send(body).status();
+  }
+
+  private FakeServlets.Response send(String body) throws IOException {
+    FakeServlets.Response response = new FakeServlets.Response();
+    servlet.doPost(new FakeServlets.Request().body(body).build(), response.build());
+    return response;
+  }
+
+  private static String event(long start, long duration) {
+    return "{\"title\": \"Event 1\", \"when\": {\"start\": " + start + ", \"duration\": "
+        + duration + "}, \"attendees\": [\"Person A\"]}";
+  }
+}
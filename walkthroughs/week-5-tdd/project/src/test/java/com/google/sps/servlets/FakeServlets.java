@@ -0,0 +1,182 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.EventStore;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Just enough of a servlet container to call a servlet directly in a test. Anything the fakes don't
+ * know about returns {@code null}, zero or {@code false}.
+ */
+final class FakeServlets {
+  private FakeServlets() {
+    // Disallow instances.
+  }
+
+  /**
+   * Initializes {@code servlet} in a context whose shared event store is {@code store}.
+   */
+  static <T extends HttpServlet> T init(T servlet, EventStore store) throws ServletException {
+    ServletContext context = fake(ServletContext.class, (method, args) ->
+        method.equals("getAttribute") && EventStore.class.getName().equals(args[0]) ? store : null);
+    servlet.init(fake(ServletConfig.class,
+        (method, args) -> method.equals("getServletContext") ? context : null));
+    return servlet;
+  }
+
+  /**
+   * A request with query parameters, headers and a body.
+   */
+  static final class Request {
+    private final Map<String, String> parameters = new HashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private String body = "";
+
+    Request parameter(String name, String value) {
+      parameters.put(name, value);
+      return this;
+    }
+
+    Request header(String name, String value) {
+      headers.put(name, value);
+      return this;
+    }
+
+    Request body(String body) {
+      this.body = body;
+      return this;
+    }
+
+    HttpServletRequest build() {
+      return fake(HttpServletRequest.class, (method, args) -> {
+        switch (method) {
+          case "getParameter":
+            return parameters.get(args[0]);
+          case "getHeader":
+            return headers.get(args[0]);
+          case "getReader":
+            return new BufferedReader(new StringReader(body));
+          default:
+            return null;
+        }
+      });
+    }
+  }
+
+  /**
+   * A response that remembers its status, headers and body.
+   */
+  static final class Response {
+    private final Map<String, String> headers = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final PrintWriter writer =
+        new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+    private int status = HttpServletResponse.SC_OK;
+
+    HttpServletResponse build() {
+      ServletOutputStream out = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+          body.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {}
+      };
+      return fake(HttpServletResponse.class, (method, args) -> {
+        switch (method) {
+          case "setStatus":
+          case "sendError":
+            status = (Integer) args[0];
+            return null;
+          case "setHeader":
+            headers.put((String) args[0], (String) args[1]);
+            return null;
+          case "getWriter":
+            return writer;
+          case "getOutputStream":
+            return out;
+          default:
+            return null;
+        }
+      });
+    }
+
+    int status() {
+      return status;
+    }
+
+    String header(String name) {
+      return headers.get(name);
+    }
+
+    byte[] bytes() {
+      writer.flush();
+      return body.toByteArray();
+    }
+
+    String body() {
+      return new String(bytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Answers a call to the method with the given name.
+   */
+  private interface Handler {
+    Object call(String method, Object[] args) throws Exception;
+  }
+
+  private static <T> T fake(Class<T> type, Handler handler) {
+    Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+        (self, method, args) -> {
+          Object answer = handler.call(method.getName(), args);
+          if (answer != null || !method.getReturnType().isPrimitive()) {
+            return answer;
+          }
+          Class<?> returnType = method.getReturnType();
+          if (returnType == boolean.class) {
+            return false;
+          }
+          if (returnType == long.class) {
+            return 0L;
+          }
+          return returnType == int.class ? 0 : null;
+        });
+    return type.cast(proxy);
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class JsonInputTest {
+  @Test
+  public void readsAMeetingRequest() throws IOException {
+    String json = "{\"duration\": 30, \"attendees\": [\"Person A\"], \"unknown\": {\"x\": [1]},"
+        + " \"optional_attendees\": [\"Person A\", \"Person B\"]}";
+
+    MeetingRequest request = input(json).readMeetingRequest();
+
+    Assert.assertEquals(30, request.getDuration());
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Person A")),
+        new HashSet<>(request.getAttendees()));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Person B")),
+        new HashSet<>(request.getOptionalAttendees()));
+  }
+
+  @Test
+  public void readsEvents() throws IOException {
+    String json = "[{\"title\": \"Event 1\", \"when\": {\"start\": 480, \"duration\": 30},"
+        + " \"attendees\": [\"Person A\"]}]";
+
+    List<Event> events = input(json).readEvents(10);
+
+    Assert.assertEquals(Arrays.asList(new Event("Event 1", TimeRange.fromStartDuration(480, 30),
+        Arrays.asList("Person A"))), events);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEventsWithoutATime() throws IOException {
+    input("{\"title\": \"Event 1\", \"attendees\": []}").readEvent();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEventsOutsideTheDay() throws IOException {
+    input("{\"title\": \"Event 1\", \"when\": {\"start\": 1410, \"duration\": 60}}")
+        .readEvent();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEventsWhoseEndOverflows() throws IOException {
+    input("{\"title\": \"Event 1\", \"when\": {\"start\": 2147483600, \"duration\": 100}}")
+        .readEvent();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsMeetingsWithoutADuration() throws IOException {
+    input("{\"attendees\": [\"Person A\"]}").readMeetingRequest();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsTooManyEvents() throws IOException {
+    String event = "{\"title\": \"Event\", \"when\": {\"start\": 0, \"duration\": 30}}";
+    input("[" + event + ", " + event + "]").readEvents(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsTooManyAttendees() throws IOException {
+    StringBuilder json = new StringBuilder("{\"attendees\": [");
+    for (int i = 0; i <= JsonInput.MAX_ATTENDEES; i++) {
+      json.append(i == 0 ? "" : ",").append("\"Person ").append(i).append('"');
+    }
+    input(json.append("]}").toString()).readMeetingRequest();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsBodiesOverTheLimit() throws IOException {
+    new JsonInput(new StringReader("{\"attendees\": [\"Person A\"]}"), 10).readMeetingRequest();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsMalformedJson() throws IOException {
+    input("{\"duration\": }").readMeetingRequest();
+  }
+
+  private static JsonInput input(String json) {
+    return new JsonInput(new StringReader(json), JsonInput.MAX_BODY_LENGTH);
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.Relaxation;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class JsonOutputTest {
+  private static final TimeRange MORNING = TimeRange.fromStartDuration(480, 30);
+  private static final Event EVENT =
+      new Event("Event \"1\"", MORNING, Arrays.asList("Person A"));
+
+  @Test
+  public void objectFormMatchesGson() throws IOException {
+    StringWriter out = new StringWriter();
+    JsonOutput.writeRanges(new JsonWriter(out), Arrays.asList(MORNING), false);
+
+    Assert.assertEquals(new Gson().toJson(Arrays.asList(MORNING)), out.toString());
+  }
+
+  @Test
+  public void objectFormOfEvents() throws IOException {
+    StringWriter out = new StringWriter();
+    JsonOutput.writeEvents(new JsonWriter(out), Arrays.asList(EVENT), false);
+
+    Assert.assertEquals(
+        "[{\"title\":\"Event \\\"1\\\"\",\"when\":{\"start\":480,\"duration\":30},"
+            + "\"attendees\":[\"Person A\"]}]",
+        out.toString());
+  }
+
+  @Test
+  public void compactForm() throws IOException {
+    StringWriter ranges = new StringWriter();
+    JsonOutput.writeRanges(new JsonWriter(ranges), Arrays.asList(MORNING), true);
+    StringWriter events = new StringWriter();
+    JsonOutput.writeEvents(new JsonWriter(events), Arrays.asList(EVENT), true);
+
+    Assert.assertEquals("[[480,510]]", ranges.toString());
+    Assert.assertEquals("[[480,510,\"Event \\\"1\\\"\",[\"Person A\"]]]", events.toString());
+  }
+
+  @Test
+  public void relaxationForms() throws IOException {
+    Relaxation relaxation = new FindMeetingQuery().relax(
+        new EventIndex(Arrays.asList(EVENT)), new MeetingRequest(Arrays.asList("Person A"), 1440),
+        1000);
+    StringWriter object = new StringWriter();
+    JsonOutput.writeRelaxation(new JsonWriter(object), relaxation, false);
+    StringWriter compact = new StringWriter();
+    JsonOutput.writeRelaxation(new JsonWriter(compact), relaxation, true);
+
+    Assert.assertEquals(
+        "{\"dropped\":[\"Person A\"],\"times\":[{\"start\":0,\"duration\":1440}],"
+            + "\"longestDuration\":930,\"complete\":true}",
+        object.toString());
+    Assert.assertEquals("[[\"Person A\"],[[0,1440]],930,true]", compact.toString());
+  }
+}
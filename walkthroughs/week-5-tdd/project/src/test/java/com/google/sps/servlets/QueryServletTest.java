@@ -0,0 +1,99 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryServletTest {
+  private static final String REQUEST =
+      "{\"attendees\": [\"Person A\"], \"optional_attendees\": [], \"duration\": 30}";
+
+  @Test
+  public void topSlotsNearTheTarget() throws IOException, ServletException {
+    // A is busy from 8:00 to 9:00, well before the 10:00 target, so it doesn't get in the way.
+    EventStore store = new EventStore(Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartDuration(480, 60), Arrays.asList("Person A"))));
+    QueryServlet servlet = FakeServlets.init(new QueryServlet(), store);
+    FakeServlets.Response response = new FakeServlets.Response();
+
+    servlet.doPost(new FakeServlets.Request()
+                       .parameter("top", "3")
+                       .parameter("target", "600")
+                       .parameter("format", "compact")
+                       .body(REQUEST)
+                       .build(),
+        response.build());
+
+    Assert.assertEquals(HttpServletResponse.SC_OK, response.status());
+    Assert.assertEquals("[[600,630],[585,615],[615,645]]", response.body());
+  }
+
+  @Test
+  public void targetMustBeANumber() throws IOException, ServletException {
+    QueryServlet servlet = FakeServlets.init(new QueryServlet(), new EventStore(Arrays.asList()));
+    FakeServlets.Response response = new FakeServlets.Response();
+
+    servlet.doPost(new FakeServlets.Request()
+                       .parameter("top", "3")
+                       .parameter("target", "ten")
+                       .body(REQUEST)
+                       .build(),
+        response.build());
+
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.status());
+  }
+
+  @Test
+  public void durationMustBePositive() throws IOException, ServletException {
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, postWithDuration(0));
+    Assert.assertEquals(HttpServletResponse.SC_BAD_REQUEST, postWithDuration(-30));
+  }
+
+  @Test
+  public void overLongMeetingsFitNowhere() throws IOException, ServletException {
+    FakeServlets.Response response = post(24 * 60 + 1);
+
+    Assert.assertEquals(HttpServletResponse.SC_OK, response.status());
+    Assert.assertEquals("[]", response.body().trim());
+  }
+
+  private static int postWithDuration(long duration) throws IOException, ServletException {
+    return post(duration).status();
+  }
+
+  private static FakeServlets.Response post(long duration) throws IOException, ServletException {
+    QueryServlet servlet = FakeServlets.init(new QueryServlet(), new EventStore(Arrays.asList()));
+    FakeServlets.Response response = new FakeServlets.Response();
+
+    servlet.doPost(new FakeServlets.Request()
+                       .body("{\"attendees\": [\"Person A\"], \"duration\": " + duration + "}")
+                       .build(),
+        response.build());
+
+    return response;
+  }
+}